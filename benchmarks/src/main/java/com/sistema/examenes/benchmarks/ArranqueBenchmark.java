@@ -0,0 +1,54 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.SistemaExamenesBackendApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo hasta que la aplicacion queda lista, contra H2 en memoria (perfil arranque). Cada medicion
+ * es un arranque en frio en una JVM nueva, sin y con el perfil inicio-rapido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class ArranqueBenchmark {
+
+    @Param({"", "inicio-rapido"})
+    private String perfil;
+
+    private ConfigurableApplicationContext contexto;
+
+    @Benchmark
+    public ConfigurableApplicationContext arrancar() {
+        SpringApplicationBuilder aplicacion = new SpringApplicationBuilder(SistemaExamenesBackendApplication.class);
+        if (perfil.isEmpty()) {
+            aplicacion.profiles("arranque");
+        } else {
+            aplicacion.profiles("arranque", perfil);
+        }
+        contexto = aplicacion.run();
+        return contexto;
+    }
+
+    @TearDown(Level.Iteration)
+    public void detener() {
+        contexto.close();
+    }
+}
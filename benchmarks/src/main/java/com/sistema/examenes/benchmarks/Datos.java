@@ -0,0 +1,101 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Entrega;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de prueba con el tamano de un examen real: enunciados largos y cuatro opciones.
+ */
+final class Datos {
+
+    private static final Random RANDOM = new Random(42);
+
+    private Datos() {
+    }
+
+    static Categoria categoria(long id) {
+        Categoria categoria = new Categoria();
+        categoria.setCategoriaId(id);
+        categoria.setTitulo("Categoria " + id);
+        categoria.setDescripcion("Descripcion de la categoria " + id);
+        return categoria;
+    }
+
+    static Examen examen(long id, int numeroDePreguntas) {
+        Examen examen = new Examen();
+        examen.setExamenId(id);
+        examen.setTitulo("Examen " + id);
+        examen.setDescripcion("Descripcion del examen " + id);
+        examen.setPuntosMaximos(100);
+        examen.setNumeroDePreguntas(numeroDePreguntas);
+        examen.setActivo(true);
+        examen.setCategoria(categoria(1));
+        return examen;
+    }
+
+    static List<Pregunta> preguntas(Examen examen, int cantidad) {
+        return preguntas(examen, cantidad, 400);
+    }
+
+    static List<Pregunta> preguntas(Examen examen, int cantidad, int longitudDelEnunciado) {
+        List<Pregunta> preguntas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setPreguntaId((long) i + 1);
+            pregunta.setContenido(texto(longitudDelEnunciado));
+            pregunta.setImagen("imagen-" + i + ".png");
+            pregunta.setOpcion1("Opcion A " + texto(30));
+            pregunta.setOpcion2("Opcion B " + texto(30));
+            pregunta.setOpcion3("Opcion C " + texto(30));
+            pregunta.setOpcion4("Opcion D " + texto(30));
+            pregunta.setRespuesta(pregunta.getOpcion1());
+            pregunta.setExamen(examen);
+            preguntas.add(pregunta);
+        }
+        return preguntas;
+    }
+
+    /**
+     * Copia de las preguntas como las envia el alumno: respuesta dada y sin la respuesta correcta.
+     */
+    static List<Pregunta> respuestasDelAlumno(List<Pregunta> preguntas) {
+        List<Pregunta> respuestas = new ArrayList<>(preguntas.size());
+        for (Pregunta original : preguntas) {
+            Pregunta respuesta = new Pregunta();
+            respuesta.setPreguntaId(original.getPreguntaId());
+            respuesta.setExamen(original.getExamen());
+            respuesta.setRespuestaDada(RANDOM.nextBoolean() ? original.getOpcion1() : original.getOpcion2());
+            respuestas.add(respuesta);
+        }
+        return respuestas;
+    }
+
+    /**
+     * Las mismas respuestas que respuestasDelAlumno, en el formato de /pregunta/evaluar-entrega.
+     */
+    static Entrega entregaCompacta(List<Pregunta> respuestasDelAlumno) {
+        Pregunta primera = respuestasDelAlumno.get(0);
+        long[] preguntaIds = new long[respuestasDelAlumno.size()];
+        byte[] opciones = new byte[respuestasDelAlumno.size()];
+        for (int i = 0; i < preguntaIds.length; i++) {
+            Pregunta respuesta = respuestasDelAlumno.get(i);
+            preguntaIds[i] = respuesta.getPreguntaId();
+            opciones[i] = (byte) (respuesta.getRespuestaDada().startsWith("Opcion A") ? 1 : 2);
+        }
+        return new Entrega(primera.getExamen().getExamenId(), preguntaIds, opciones);
+    }
+
+    private static String texto(int longitud) {
+        StringBuilder builder = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            builder.append(i % 7 == 6 ? ' ' : (char) ('a' + RANDOM.nextInt(26)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.sistema.examenes.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de benchmarks.jar. Acepta las mismas opciones que org.openjdk.jmh.Main,
+ * pero si no se indica otra cosa escribe los resultados en JSON en target/jmh-resultados.json
+ * para poder comparar ejecuciones entre versiones.
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions lineaDeComandos = new CommandLineOptions(args);
+        if (lineaDeComandos.shouldHelp() || lineaDeComandos.shouldList() || lineaDeComandos.shouldListWithParams()
+                || lineaDeComandos.shouldListProfilers() || lineaDeComandos.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        OptionsBuilder opciones = new OptionsBuilder();
+        opciones.parent(lineaDeComandos);
+        if (!lineaDeComandos.getResultFormat().hasValue()) {
+            opciones.resultFormat(ResultFormatType.JSON);
+        }
+        if (!lineaDeComandos.getResult().hasValue()) {
+            opciones.result("target/jmh-resultados.json");
+        }
+        Options construidas = opciones.build();
+        new Runner(construidas).run();
+    }
+}
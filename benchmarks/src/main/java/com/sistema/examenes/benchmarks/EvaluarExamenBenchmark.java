@@ -0,0 +1,73 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.controladores.PreguntaController;
+import com.sistema.examenes.modelo.Entrega;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.impl.ClaveDeRespuestasServiceImpl;
+import com.sistema.examenes.servicios.impl.PreguntaServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calificacion de un intento completo con PreguntaController.evaluarExamen y con la entrega
+ * compacta de evaluarEntrega.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluarExamenBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int numeroDePreguntas;
+
+    private PreguntaController preguntaController;
+    private List<Pregunta> respuestas;
+    private Entrega entrega;
+
+    @Setup
+    public void setUp() {
+        Examen examen = Datos.examen(1, numeroDePreguntas);
+        List<Pregunta> preguntas = Datos.preguntas(examen, numeroDePreguntas);
+        respuestas = Datos.respuestasDelAlumno(preguntas);
+        entrega = Datos.entregaCompacta(respuestas);
+
+        PreguntaRepository preguntaRepository = RepositoriosEnMemoria.preguntas(preguntas);
+        ClaveDeRespuestasServiceImpl claveDeRespuestasService = new ClaveDeRespuestasServiceImpl();
+        ReflectionTestUtils.setField(claveDeRespuestasService, "preguntaRepository", preguntaRepository);
+        PreguntaServiceImpl preguntaService = new PreguntaServiceImpl();
+        ReflectionTestUtils.setField(preguntaService, "preguntaRepository", preguntaRepository);
+        ReflectionTestUtils.setField(preguntaService, "claveDeRespuestasService", claveDeRespuestasService);
+        ReflectionTestUtils.setField(preguntaService, "examenRepository", RepositoriosEnMemoria.examenes(examen));
+
+        preguntaController = new PreguntaController();
+        ReflectionTestUtils.setField(preguntaController, "preguntaService", preguntaService);
+    }
+
+    @Benchmark
+    public Object evaluarExamen() {
+        return preguntaController.evaluarExamen(respuestas);
+    }
+
+    @Benchmark
+    public Object evaluarEntrega() throws Exception {
+        return preguntaController.evaluarEntrega(entrega);
+    }
+}
@@ -0,0 +1,110 @@
+package com.sistema.examenes.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sistema.examenes.modelo.Entrega;
+import com.sistema.examenes.modelo.Pregunta;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes en la red y CPU de serializacion de /pregunta/examen/{id} (preguntas de un intento) y
+ * de la entrega del alumno en /pregunta/evaluar-examen y /pregunta/evaluar-entrega, en cada
+ * formato. El contador "bytes" es el tamano de un cuerpo; las variantes comprimidas usan gzip
+ * con el nivel por defecto, como server.compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatosDeRespuestaBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    @Param({"20", "100"})
+    private int preguntas;
+
+    @Param({"500", "5000"})
+    private int longitudDelEnunciado;
+
+    private ObjectMapper objectMapper;
+    private JavaType listaDePreguntas;
+    private List<Pregunta> intento;
+    private byte[] entrega;
+    private byte[] entregaCompacta;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamano {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        switch (formato) {
+            case "cbor":
+                objectMapper = new ObjectMapper(new CBORFactory());
+                break;
+            case "smile":
+                objectMapper = new ObjectMapper(new SmileFactory());
+                break;
+            default:
+                objectMapper = new ObjectMapper();
+        }
+        listaDePreguntas = objectMapper.getTypeFactory().constructCollectionType(List.class, Pregunta.class);
+        intento = Datos.preguntas(Datos.examen(1, preguntas), preguntas, longitudDelEnunciado);
+        List<Pregunta> respuestasDelAlumno = Datos.respuestasDelAlumno(intento);
+        entrega = objectMapper.writeValueAsBytes(respuestasDelAlumno);
+        entregaCompacta = objectMapper.writeValueAsBytes(Datos.entregaCompacta(respuestasDelAlumno));
+    }
+
+    @Benchmark
+    public byte[] escribirPreguntas(Tamano tamano) throws Exception {
+        byte[] cuerpo = objectMapper.writeValueAsBytes(intento);
+        tamano.bytes = cuerpo.length;
+        return cuerpo;
+    }
+
+    @Benchmark
+    public byte[] escribirPreguntasComprimidas(Tamano tamano) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            objectMapper.writeValue(gzip, intento);
+        }
+        byte[] cuerpo = salida.toByteArray();
+        tamano.bytes = cuerpo.length;
+        return cuerpo;
+    }
+
+    @Benchmark
+    public List<Pregunta> leerEntrega(Tamano tamano) throws Exception {
+        tamano.bytes = entrega.length;
+        return objectMapper.readValue(entrega, listaDePreguntas);
+    }
+
+    @Benchmark
+    public Entrega leerEntregaCompacta(Tamano tamano) throws Exception {
+        tamano.bytes = entregaCompacta.length;
+        return objectMapper.readValue(entregaCompacta, Entrega.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.configuraciones.AlmacenDeLlaves;
+import com.sistema.examenes.configuraciones.JwtAuthenticationFilter;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.servicios.impl.RevocacionTokenServiceImpl;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * doFilterInternal con una cadena simulada y un UserDetailsService en memoria,
+ * para medir solo el coste del filtro (parseo, revocacion y contexto de seguridad).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filtro;
+    private String token;
+    private String tokenAlterado;
+
+    @Setup
+    public void setUp() throws Exception {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("elias");
+
+        AlmacenDeLlaves almacenDeLlaves = new AlmacenDeLlaves();
+        almacenDeLlaves.inicializar();
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "almacenDeLlaves", almacenDeLlaves);
+        ReflectionTestUtils.setField(jwtUtils, "duracionMs", 900000L);
+        token = jwtUtils.generateToken(usuario);
+        tokenAlterado = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        RevocacionTokenServiceImpl revocacionTokenService = new RevocacionTokenServiceImpl();
+        ReflectionTestUtils.setField(revocacionTokenService, "capacidad", 1000000L);
+        ReflectionTestUtils.setField(revocacionTokenService, "probabilidadFalsoPositivo", 0.01);
+        ReflectionTestUtils.setField(revocacionTokenService, "duracionDeToken", 900000L);
+        ReflectionTestUtils.setField(revocacionTokenService, "tokenRevocadoRepository", RepositoriosEnMemoria.tokensRevocados());
+        ReflectionTestUtils.setField(revocacionTokenService, "revocacionDeUsuarioRepository", RepositoriosEnMemoria.revocacionesDeUsuario());
+        revocacionTokenService.inicializar();
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return usuario;
+            }
+        };
+
+        filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "jwtUtil", jwtUtils);
+        ReflectionTestUtils.setField(filtro, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filtro, "revocacionTokenService", revocacionTokenService);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse conTokenValido() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/examen/activo");
+        request.addHeader("Authorization", "Bearer " + token);
+        return filtrar(request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse conFirmaInvalida() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/examen/activo");
+        request.addHeader("Authorization", "Bearer " + tokenAlterado);
+        return filtrar(request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse sinToken() throws Exception {
+        return filtrar(new MockHttpServletRequest("GET", "/examen/activo"));
+    }
+
+    private MockHttpServletResponse filtrar(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filtro.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
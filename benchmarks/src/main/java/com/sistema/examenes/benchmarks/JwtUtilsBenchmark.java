@@ -0,0 +1,56 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.configuraciones.AlmacenDeLlaves;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.modelo.Usuario;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        AlmacenDeLlaves almacenDeLlaves = new AlmacenDeLlaves();
+        almacenDeLlaves.inicializar();
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "almacenDeLlaves", almacenDeLlaves);
+        ReflectionTestUtils.setField(jwtUtils, "duracionMs", 900000L);
+
+        usuario = new Usuario();
+        usuario.setUsername("elias");
+        token = jwtUtils.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtils.generateToken(usuario);
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        Claims claims = jwtUtils.extractAllClaims(token);
+        return jwtUtils.validateToken(claims, usuario);
+    }
+}
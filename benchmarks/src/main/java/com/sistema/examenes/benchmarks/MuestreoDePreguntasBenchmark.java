@@ -0,0 +1,52 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.controladores.PreguntaController;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.servicios.impl.PreguntaServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seleccion y barajado de las preguntas que se entregan al alumno (/pregunta/examen/{id}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MuestreoDePreguntasBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int preguntasDelBanco;
+
+    private PreguntaController preguntaController;
+
+    @Setup
+    public void setUp() {
+        Examen examen = Datos.examen(1, preguntasDelBanco);
+        PreguntaServiceImpl preguntaService = new PreguntaServiceImpl();
+        ReflectionTestUtils.setField(preguntaService, "preguntaRepository", RepositoriosEnMemoria.preguntas(Datos.preguntas(examen, preguntasDelBanco)));
+        ReflectionTestUtils.setField(preguntaService, "examenRepository", RepositoriosEnMemoria.examenes(examen));
+
+        preguntaController = new PreguntaController();
+        ReflectionTestUtils.setField(preguntaController, "preguntaService", preguntaService);
+    }
+
+    @Benchmark
+    public Object muestrearYBarajar() {
+        return preguntaController.listarPreguntasDelExamen(1L);
+    }
+}
@@ -0,0 +1,105 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.modelo.ClaveDeRespuestas;
+import com.sistema.examenes.modelo.Entrega;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.IntentoEmpaquetado;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.ClaveDeRespuestasService;
+import com.sistema.examenes.servicios.impl.PreguntaServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intentos calificados por milisegundo: el recorrido de PreguntaServiceImpl.evaluarExamen, que
+ * compara el texto de cada respuesta, contra el XOR y conteo de bits de ClaveDeRespuestas sobre
+ * intentos empaquetados. En los dos casos la clave ya esta en memoria, como tras un acierto de
+ * cache. Los metodos recalificar* pasan un lote de intentos distintos por la misma clave.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecalificacionBenchmark {
+
+    private static final int LOTE = 256;
+
+    @Param({"10", "100", "1000"})
+    private int numeroDePreguntas;
+
+    private PreguntaServiceImpl preguntaService;
+    private ClaveDeRespuestas clave;
+    private List<List<Pregunta>> respuestas;
+    private List<IntentoEmpaquetado> intentos;
+
+    @Setup
+    public void setUp() {
+        Examen examen = Datos.examen(1, numeroDePreguntas);
+        List<Pregunta> preguntas = Datos.preguntas(examen, numeroDePreguntas);
+        clave = new ClaveDeRespuestas(RepositoriosEnMemoria.preguntas(preguntas).buscarRespuestasCorrectas(examen.getExamenId()));
+
+        preguntaService = new PreguntaServiceImpl();
+        ReflectionTestUtils.setField(preguntaService, "claveDeRespuestasService", (ClaveDeRespuestasService) examenId -> clave);
+        ReflectionTestUtils.setField(preguntaService, "examenRepository", RepositoriosEnMemoria.examenes(examen));
+
+        respuestas = new ArrayList<>(LOTE);
+        intentos = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            List<Pregunta> delAlumno = Datos.respuestasDelAlumno(preguntas);
+            respuestas.add(delAlumno);
+            intentos.add(empaquetar(Datos.entregaCompacta(delAlumno)));
+        }
+    }
+
+    private IntentoEmpaquetado empaquetar(Entrega entrega) {
+        IntentoEmpaquetado intento = new IntentoEmpaquetado(clave.tamano());
+        for (int i = 0; i < entrega.getPreguntaIds().length; i++) {
+            intento.responder(clave.posicion(entrega.getPreguntaIds()[i]), entrega.getRespuestas()[i]);
+        }
+        return intento;
+    }
+
+    @Benchmark
+    public Object evaluarExamen() {
+        return preguntaService.evaluarExamen(respuestas.get(0));
+    }
+
+    @Benchmark
+    public int contarCorrectas() {
+        return clave.contarCorrectas(intentos.get(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void recalificarConEvaluarExamen(Blackhole blackhole) {
+        for (List<Pregunta> delAlumno : respuestas) {
+            blackhole.consume(preguntaService.evaluarExamen(delAlumno));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void recalificarEmpaquetados(Blackhole blackhole) {
+        for (IntentoEmpaquetado intento : intentos) {
+            blackhole.consume(clave.contarCorrectas(intento));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.sistema.examenes.benchmarks;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.RespuestaCorrecta;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.repositorios.RevocacionDeUsuarioRepository;
+import com.sistema.examenes.repositorios.TokenRevocadoRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Repositorios respaldados por mapas, para medir los servicios reales sin base de datos.
+ * Solo responden las consultas que usan los servicios medidos; no hay cache delante, asi que
+ * cada llamada mide el trabajo completo del servicio.
+ */
+final class RepositoriosEnMemoria {
+
+    private RepositoriosEnMemoria() {
+    }
+
+    static PreguntaRepository preguntas(List<Pregunta> preguntas) {
+        Map<Long, Pregunta> porId = new LinkedHashMap<>();
+        for (Pregunta pregunta : preguntas) {
+            porId.put(pregunta.getPreguntaId(), pregunta);
+        }
+        return (PreguntaRepository) Proxy.newProxyInstance(PreguntaRepository.class.getClassLoader(),
+                new Class<?>[]{PreguntaRepository.class}, (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "findById":
+                            return Optional.ofNullable(porId.get((Long) argumentos[0]));
+                        case "findAllById":
+                            List<Pregunta> encontradas = new ArrayList<>();
+                            for (Object id : (Iterable<?>) argumentos[0]) {
+                                Pregunta pregunta = porId.get((Long) id);
+                                if (pregunta != null) {
+                                    encontradas.add(pregunta);
+                                }
+                            }
+                            return encontradas;
+                        case "findByExamen":
+                            return delExamen(porId, ((Examen) argumentos[0]).getExamenId());
+                        case "buscarParaRendir":
+                            return new ArrayList<>(delExamen(porId, (Long) argumentos[0]));
+                        case "buscarRespuestasCorrectas":
+                            List<RespuestaCorrecta> respuestas = new ArrayList<>();
+                            for (Pregunta pregunta : delExamen(porId, (Long) argumentos[0])) {
+                                respuestas.add(new RespuestaCorrecta(pregunta.getPreguntaId(), pregunta.getRespuesta(), opcion(pregunta)));
+                            }
+                            return respuestas;
+                        default:
+                            throw new UnsupportedOperationException(metodo.getName());
+                    }
+                });
+    }
+
+    private static int opcion(Pregunta pregunta) {
+        String[] opciones = {pregunta.getOpcion1(), pregunta.getOpcion2(), pregunta.getOpcion3(), pregunta.getOpcion4()};
+        for (int i = 0; i < opciones.length; i++) {
+            if (pregunta.getRespuesta() != null && pregunta.getRespuesta().equals(opciones[i])) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static Set<Pregunta> delExamen(Map<Long, Pregunta> porId, Long examenId) {
+        Set<Pregunta> delExamen = new LinkedHashSet<>();
+        for (Pregunta pregunta : porId.values()) {
+            if (pregunta.getExamen().getExamenId().equals(examenId)) {
+                delExamen.add(pregunta);
+            }
+        }
+        return delExamen;
+    }
+
+    static ExamenRepository examenes(Examen... examenes) {
+        Map<Long, Examen> porId = new LinkedHashMap<>();
+        for (Examen examen : examenes) {
+            porId.put(examen.getExamenId(), examen);
+        }
+        return (ExamenRepository) Proxy.newProxyInstance(ExamenRepository.class.getClassLoader(),
+                new Class<?>[]{ExamenRepository.class}, (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("findById") || metodo.getName().equals("buscarParaRendir")) {
+                        return Optional.ofNullable(porId.get((Long) argumentos[0]));
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    static TokenRevocadoRepository tokensRevocados() {
+        return sinFilas(TokenRevocadoRepository.class);
+    }
+
+    static RevocacionDeUsuarioRepository revocacionesDeUsuario() {
+        return sinFilas(RevocacionDeUsuarioRepository.class);
+    }
+
+    // solo las lecturas del refresco, que no encuentran nada
+    private static <T> T sinFilas(Class<T> repositorio) {
+        return repositorio.cast(Proxy.newProxyInstance(repositorio.getClassLoader(),
+                new Class<?>[]{repositorio}, (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().startsWith("leer")) {
+                        return Collections.emptyList();
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                }));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistema.examenes.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializacion Jackson de las listas que devuelven /examen/activo y /pregunta/examen/{id}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"10", "100"})
+    private int elementos;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Examen> examenes;
+    private List<Pregunta> preguntas;
+
+    @Setup
+    public void setUp() {
+        examenes = new ArrayList<>(elementos);
+        for (int i = 0; i < elementos; i++) {
+            examenes.add(Datos.examen(i + 1, 10));
+        }
+        preguntas = Datos.preguntas(examenes.get(0), elementos);
+    }
+
+    @Benchmark
+    public byte[] serializarExamenes() throws Exception {
+        return objectMapper.writeValueAsBytes(examenes);
+    }
+
+    @Benchmark
+    public byte[] serializarPreguntas() throws Exception {
+        return objectMapper.writeValueAsBytes(preguntas);
+    }
+}
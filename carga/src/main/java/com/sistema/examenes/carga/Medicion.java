@@ -0,0 +1,71 @@
+package com.sistema.examenes.carga;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latencias, codigos de estado y sentencias SQL de un escenario.
+ */
+class Medicion {
+
+    private final String escenario;
+    private final String endpoint;
+    private final long[] latenciasNanos;
+    private final AtomicInteger registradas = new AtomicInteger();
+    private final Map<Integer, Integer> codigos = new TreeMap<>();
+    private long duracionNanos;
+    private long sentenciasSql;
+
+    Medicion(String escenario, String endpoint, int peticiones) {
+        this.escenario = escenario;
+        this.endpoint = endpoint;
+        this.latenciasNanos = new long[peticiones];
+    }
+
+    String getEscenario() {
+        return escenario;
+    }
+
+    void registrar(long latenciaNanos, int codigo) {
+        latenciasNanos[registradas.getAndIncrement()] = latenciaNanos;
+        synchronized (codigos) {
+            codigos.merge(codigo, 1, Integer::sum);
+        }
+    }
+
+    void finalizar(long duracionNanos, long sentenciasSql) {
+        this.duracionNanos = duracionNanos;
+        this.sentenciasSql = sentenciasSql;
+    }
+
+    Map<String, Object> resumen() {
+        int total = registradas.get();
+        long[] ordenadas = Arrays.copyOf(latenciasNanos, total);
+        Arrays.sort(ordenadas);
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("escenario", escenario);
+        resumen.put("endpoint", endpoint);
+        resumen.put("peticiones", total);
+        resumen.put("codigos", codigos);
+        resumen.put("peticionesPorSegundo", total / (duracionNanos / 1e9));
+        resumen.put("p50Ms", percentil(ordenadas, 0.50));
+        resumen.put("p90Ms", percentil(ordenadas, 0.90));
+        resumen.put("p99Ms", percentil(ordenadas, 0.99));
+        resumen.put("maximoMs", total == 0 ? 0 : ordenadas[total - 1] / 1e6);
+        resumen.put("sentenciasSql", sentenciasSql);
+        resumen.put("sentenciasPorPeticion", total == 0 ? 0 : (double) sentenciasSql / total);
+        return resumen;
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
@@ -0,0 +1,344 @@
+package com.sistema.examenes.carga;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.SistemaExamenesBackendApplication;
+import com.sistema.examenes.configuraciones.RegistroDeRoles;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.repositorios.UsuarioRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Levanta la aplicacion contra H2 en memoria, siembra los datos y ejecuta los escenarios
+ * de carga por HTTP: tormenta de inicios de sesion, rafaga de inicio de examen y envio
+ * concurrente de respuestas.
+ *
+ * Parametros (propiedades del sistema):
+ * carga.categorias, carga.examenesPorCategoria, carga.preguntasPorExamen,
+ * carga.usuarios, carga.hilos, carga.examenesEnRafaga, carga.salida
+ */
+public class PruebaDeCarga {
+
+    private static final String PASSWORD = "123";
+
+    private final int categorias = Integer.getInteger("carga.categorias", 5);
+    private final int examenesPorCategoria = Integer.getInteger("carga.examenesPorCategoria", 4);
+    private final int preguntasPorExamen = Integer.getInteger("carga.preguntasPorExamen", 50);
+    private final int usuarios = Integer.getInteger("carga.usuarios", 200);
+    private final int hilos = Integer.getInteger("carga.hilos", 32);
+    private final int examenesEnRafaga = Integer.getInteger("carga.examenesEnRafaga", 2);
+    private final String salida = System.getProperty("carga.salida", "target/carga-resultados.json");
+
+    private final ConfigurableApplicationContext contexto;
+    private final ObjectMapper mapper;
+    private final Statistics estadisticas;
+    private final String urlBase;
+
+    private final List<Long> examenes = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<Long, List<Map<String, Object>>> preguntasRecibidas = new ConcurrentHashMap<>();
+
+    public PruebaDeCarga(ConfigurableApplicationContext contexto) {
+        this.contexto = contexto;
+        this.mapper = contexto.getBean(ObjectMapper.class);
+        this.estadisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        this.urlBase = "http://127.0.0.1:" + contexto.getEnvironment().getProperty("local.server.port");
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(SistemaExamenesBackendApplication.class)
+                .profiles("carga")
+                .run(args);
+        int codigo = 0;
+        try {
+            new PruebaDeCarga(contexto).ejecutar();
+        } catch (Exception e) {
+            e.printStackTrace();
+            codigo = 1;
+        } finally {
+            SpringApplication.exit(contexto);
+        }
+        System.exit(codigo);
+    }
+
+    public void ejecutar() throws Exception {
+        sembrar();
+
+        List<Medicion> mediciones = new ArrayList<>();
+        mediciones.add(tormentaDeInicioDeSesion());
+        mediciones.add(rafagaDeInicioDeExamen());
+        mediciones.add(envioConcurrenteDeRespuestas());
+
+        List<Map<String, Object>> resumenes = new ArrayList<>();
+        for (Medicion medicion : mediciones) {
+            resumenes.add(medicion.resumen());
+        }
+        imprimir(resumenes);
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("parametros", parametros());
+        resultado.put("escenarios", resumenes);
+        File archivo = new File(salida);
+        if (archivo.getParentFile() != null) {
+            archivo.getParentFile().mkdirs();
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(archivo, resultado);
+        System.out.println("Resultados en " + archivo.getAbsolutePath());
+    }
+
+    private void sembrar() {
+        CategoriaRepository categoriaRepository = contexto.getBean(CategoriaRepository.class);
+        ExamenRepository examenRepository = contexto.getBean(ExamenRepository.class);
+        PreguntaRepository preguntaRepository = contexto.getBean(PreguntaRepository.class);
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        Random random = new Random(42);
+
+        for (int c = 1; c <= categorias; c++) {
+            Categoria categoria = new Categoria();
+            categoria.setTitulo("Categoria " + c);
+            categoria.setDescripcion("Descripcion de la categoria " + c);
+            categoria = categoriaRepository.save(categoria);
+
+            for (int e = 1; e <= examenesPorCategoria; e++) {
+                Examen examen = new Examen();
+                examen.setTitulo("Examen " + c + "-" + e);
+                examen.setDescripcion("Descripcion del examen " + c + "-" + e);
+                examen.setPuntosMaximos(100);
+                examen.setNumeroDePreguntas(preguntasPorExamen);
+                examen.setActivo(true);
+                examen.setCategoria(categoria);
+                examen = examenRepository.save(examen);
+                examenes.add(examen.getExamenId());
+
+                List<Pregunta> preguntas = new ArrayList<>(preguntasPorExamen);
+                for (int p = 0; p < preguntasPorExamen; p++) {
+                    Pregunta pregunta = new Pregunta();
+                    pregunta.setContenido(texto(random, 400));
+                    pregunta.setImagen("imagen-" + p + ".png");
+                    pregunta.setOpcion1("Opcion A " + texto(random, 30));
+                    pregunta.setOpcion2("Opcion B " + texto(random, 30));
+                    pregunta.setOpcion3("Opcion C " + texto(random, 30));
+                    pregunta.setOpcion4("Opcion D " + texto(random, 30));
+                    pregunta.setRespuesta(pregunta.getOpcion1());
+                    pregunta.setExamen(examen);
+                    preguntas.add(pregunta);
+                }
+                preguntaRepository.saveAll(preguntas);
+            }
+        }
+
+        Rol normal = contexto.getBean(RegistroDeRoles.class).rol(RegistroDeRoles.NORMAL);
+        String password = contexto.getBean(BCryptPasswordEncoder.class).encode(PASSWORD);
+        List<Usuario> nuevos = new ArrayList<>(usuarios);
+        for (int u = 1; u <= usuarios; u++) {
+            Usuario usuario = new Usuario();
+            usuario.setUsername("alumno" + u);
+            usuario.setPassword(password);
+            usuario.setNombre("Alumno");
+            usuario.setApellido(String.valueOf(u));
+            usuario.setEmail("alumno" + u + "@carga.local");
+            usuario.setTelefono("900000000");
+            usuario.setPerfil("default.png");
+            UsuarioRol usuarioRol = new UsuarioRol();
+            usuarioRol.setUsuario(usuario);
+            usuarioRol.setRol(normal);
+            usuario.getUsuarioRoles().add(usuarioRol);
+            nuevos.add(usuario);
+            usernames.add(usuario.getUsername());
+        }
+        usuarioRepository.saveAll(nuevos);
+
+        System.out.println("Sembrados " + categorias + " categorias, " + examenes.size() + " examenes, "
+                + examenes.size() * preguntasPorExamen + " preguntas y " + usuarios + " usuarios");
+    }
+
+    private Medicion tormentaDeInicioDeSesion() throws Exception {
+        Medicion medicion = new Medicion("tormenta de inicio de sesion", "POST /generate-token", usuarios);
+        ejecutarEscenario(medicion, usuarios, i -> {
+            String username = usernames.get(i);
+            Map<String, String> credenciales = new HashMap<>();
+            credenciales.put("username", username);
+            credenciales.put("password", PASSWORD);
+            Respuesta respuesta = enviar("POST", "/generate-token", null, mapper.writeValueAsBytes(credenciales));
+            if (respuesta.codigo == 200) {
+                tokens.put(username, (String) mapper.readValue(respuesta.cuerpo, Map.class).get("token"));
+            }
+            return respuesta.codigo;
+        });
+        return medicion;
+    }
+
+    private Medicion rafagaDeInicioDeExamen() throws Exception {
+        Medicion medicion = new Medicion("rafaga de inicio de examen", "GET /pregunta/examen/{id}", usuarios);
+        ejecutarEscenario(medicion, usuarios, i -> {
+            Long examenId = examenes.get(i % Math.min(examenesEnRafaga, examenes.size()));
+            Respuesta respuesta = enviar("GET", "/pregunta/examen/" + examenId, tokens.get(usernames.get(i)), null);
+            if (respuesta.codigo == 200 && !preguntasRecibidas.containsKey(examenId)) {
+                preguntasRecibidas.put(examenId, mapper.readValue(respuesta.cuerpo, new TypeReference<List<Map<String, Object>>>() {}));
+            }
+            return respuesta.codigo;
+        });
+        return medicion;
+    }
+
+    private Medicion envioConcurrenteDeRespuestas() throws Exception {
+        Medicion medicion = new Medicion("envio concurrente de respuestas", "POST /pregunta/evaluar-examen", usuarios);
+        List<Long> recibidos = new ArrayList<>(preguntasRecibidas.keySet());
+        if (recibidos.isEmpty()) {
+            throw new IllegalStateException("Ningun alumno pudo iniciar un examen, no hay respuestas que enviar");
+        }
+        ejecutarEscenario(medicion, usuarios, i -> {
+            Random random = new Random(i);
+            List<Map<String, Object>> respuestas = new ArrayList<>();
+            for (Map<String, Object> pregunta : preguntasRecibidas.get(recibidos.get(i % recibidos.size()))) {
+                Map<String, Object> respuesta = new HashMap<>();
+                respuesta.put("preguntaId", pregunta.get("preguntaId"));
+                respuesta.put("examen", pregunta.get("examen"));
+                respuesta.put("respuestaDada", pregunta.get(random.nextBoolean() ? "opcion1" : "opcion2"));
+                respuestas.add(respuesta);
+            }
+            return enviar("POST", "/pregunta/evaluar-examen", tokens.get(usernames.get(i)), mapper.writeValueAsBytes(respuestas)).codigo;
+        });
+        return medicion;
+    }
+
+    private void ejecutarEscenario(Medicion medicion, int peticiones, Peticion peticion) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch arranque = new CountDownLatch(1);
+        long sentenciasAntes = estadisticas.getPrepareStatementCount();
+        for (int i = 0; i < peticiones; i++) {
+            final int indice = i;
+            ejecutor.execute(() -> {
+                try {
+                    arranque.await();
+                    long inicio = System.nanoTime();
+                    int codigo;
+                    try {
+                        codigo = peticion.ejecutar(indice);
+                    } catch (IOException e) {
+                        codigo = -1;
+                    }
+                    medicion.registrar(System.nanoTime() - inicio, codigo);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        long inicio = System.nanoTime();
+        arranque.countDown();
+        ejecutor.shutdown();
+        if (!ejecutor.awaitTermination(10, TimeUnit.MINUTES)) {
+            ejecutor.shutdownNow();
+            throw new IllegalStateException("El escenario " + medicion.getEscenario() + " no termino a tiempo");
+        }
+        medicion.finalizar(System.nanoTime() - inicio, estadisticas.getPrepareStatementCount() - sentenciasAntes);
+    }
+
+    private Respuesta enviar(String metodo, String ruta, String token, byte[] cuerpo) throws IOException {
+        HttpURLConnection conexion = (HttpURLConnection) new URL(urlBase + ruta).openConnection();
+        conexion.setRequestMethod(metodo);
+        if (token != null) {
+            conexion.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (cuerpo != null) {
+            conexion.setDoOutput(true);
+            conexion.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream salida = conexion.getOutputStream()) {
+                salida.write(cuerpo);
+            }
+        }
+        int codigo = conexion.getResponseCode();
+        InputStream entrada = codigo < 400 ? conexion.getInputStream() : conexion.getErrorStream();
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        if (entrada != null) {
+            try (InputStream cerrar = entrada) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = cerrar.read(buffer)) != -1) {
+                    leido.write(buffer, 0, n);
+                }
+            }
+        }
+        return new Respuesta(codigo, leido.toByteArray());
+    }
+
+    private void imprimir(List<Map<String, Object>> resumenes) {
+        System.out.println();
+        System.out.println(String.format("%-34s %8s %10s %9s %9s %9s %9s %9s  %s",
+                "escenario", "pet.", "pet/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "sql/pet", "codigos"));
+        for (Map<String, Object> r : resumenes) {
+            System.out.println(String.format("%-34s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s",
+                    r.get("escenario"), r.get("peticiones"), r.get("peticionesPorSegundo"), r.get("p50Ms"),
+                    r.get("p90Ms"), r.get("p99Ms"), r.get("maximoMs"), r.get("sentenciasPorPeticion"), r.get("codigos")));
+        }
+        System.out.println();
+    }
+
+    private Map<String, Object> parametros() {
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("categorias", categorias);
+        parametros.put("examenesPorCategoria", examenesPorCategoria);
+        parametros.put("preguntasPorExamen", preguntasPorExamen);
+        parametros.put("usuarios", usuarios);
+        parametros.put("hilos", hilos);
+        parametros.put("examenesEnRafaga", examenesEnRafaga);
+        return parametros;
+    }
+
+    private static String texto(Random random, int longitud) {
+        StringBuilder builder = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            builder.append(i % 7 == 6 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+
+    private interface Peticion {
+        int ejecutar(int indice) throws IOException;
+    }
+
+    private static class Respuesta {
+
+        private final int codigo;
+        private final byte[] cuerpo;
+
+        Respuesta(int codigo, byte[] cuerpo) {
+            this.codigo = codigo;
+            this.cuerpo = cuerpo;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.sistema.examenes.configuraciones;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Llaves RSA para firmar y verificar los JWT, identificadas por su kid.
+ *
+ * El archivo configurado en examenes.jwt.llaves.archivo es un .properties con el formato:
+ * <pre>
+ * activa=2026-10
+ * 2026-10.privada=&lt;PKCS#8 en base64&gt;
+ * 2026-10.publica=&lt;X.509 en base64&gt;
+ * 2026-04.publica=&lt;X.509 en base64&gt;
+ * </pre>
+ * Los nodos que solo validan tokens no necesitan ninguna llave privada. Para rotar se agrega
+ * la llave nueva, se cambia "activa" y se conserva la publica anterior hasta que expiren sus
+ * tokens. El archivo se relee cuando cambia; las llaves se parsean una sola vez por carga.
+ * Sin archivo configurado se genera un par efimero, solo con los perfiles dev, test o
+ * entrenamiento-cds (la corrida del pom que genera el archivo CDS y termina al arrancar): cada
+ * nodo tendria su propia llave y los tokens dejarian de valer al reiniciar, asi que en
+ * cualquier otro caso el arranque falla.
+ */
+@Component
+public class AlmacenDeLlaves {
+
+    private static final Logger log = LoggerFactory.getLogger(AlmacenDeLlaves.class);
+
+    private static final Profiles PERFILES_CON_LLAVES_EFIMERAS = Profiles.of("dev", "test", "entrenamiento-cds");
+
+    @Value("${examenes.jwt.llaves.archivo:}")
+    private String archivo;
+
+    // null fuera de Spring, como en las pruebas unitarias y los benchmarks
+    @Autowired(required = false)
+    private Environment environment;
+
+    private volatile Llaves llaves;
+    private volatile long ultimaModificacion;
+
+    @PostConstruct
+    public void inicializar() throws IOException, GeneralSecurityException {
+        if (archivo == null || archivo.isEmpty()) {
+            if (environment != null && !environment.acceptsProfiles(PERFILES_CON_LLAVES_EFIMERAS)) {
+                throw new IllegalStateException("Falta examenes.jwt.llaves.archivo; las llaves efimeras solo se permiten con los perfiles dev, test o entrenamiento-cds");
+            }
+            log.warn("Sin examenes.jwt.llaves.archivo: se firman los tokens con una llave efimera de este nodo");
+            llaves = generarLlavesEfimeras();
+        } else {
+            recargar();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.jwt.llaves.revision-ms:30000}")
+    public void recargarSiCambio() throws IOException, GeneralSecurityException {
+        if (archivo != null && !archivo.isEmpty() && new File(archivo).lastModified() != ultimaModificacion) {
+            recargar();
+        }
+    }
+
+    public String getKidActivo() {
+        return llaves.kidActivo;
+    }
+
+    public PrivateKey getLlavePrivadaActiva() {
+        if (llaves.privadaActiva == null) {
+            throw new IllegalStateException("Este nodo no tiene la llave privada " + llaves.kidActivo + " y no puede emitir tokens");
+        }
+        return llaves.privadaActiva;
+    }
+
+    public PublicKey getLlavePublica(String kid) {
+        return kid == null ? null : llaves.publicas.get(kid);
+    }
+
+    private synchronized void recargar() throws IOException, GeneralSecurityException {
+        File fichero = new File(archivo);
+        long modificacion = fichero.lastModified();
+        Properties propiedades = new Properties();
+        try (InputStream entrada = new FileInputStream(fichero)) {
+            propiedades.load(entrada);
+        }
+
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        String kidActivo = propiedades.getProperty("activa");
+        if (kidActivo == null) {
+            throw new IllegalStateException("El archivo de llaves " + archivo + " no define la llave activa");
+        }
+        Map<String, PublicKey> publicas = new HashMap<>();
+        PrivateKey privadaActiva = null;
+        for (String nombre : propiedades.stringPropertyNames()) {
+            String valor = propiedades.getProperty(nombre).replaceAll("\\s", "");
+            if (nombre.endsWith(".publica")) {
+                String kid = nombre.substring(0, nombre.length() - ".publica".length());
+                publicas.put(kid, keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(valor))));
+            } else if (nombre.equals(kidActivo + ".privada")) {
+                privadaActiva = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(valor)));
+            }
+        }
+        if (!publicas.containsKey(kidActivo)) {
+            throw new IllegalStateException("El archivo de llaves " + archivo + " no tiene la llave publica de " + kidActivo);
+        }
+
+        llaves = new Llaves(kidActivo, privadaActiva, publicas);
+        ultimaModificacion = modificacion;
+    }
+
+    private static Llaves generarLlavesEfimeras() throws GeneralSecurityException {
+        KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+        generador.initialize(2048);
+        KeyPair par = generador.generateKeyPair();
+        String kid = "efimera-" + UUID.randomUUID();
+        return new Llaves(kid, par.getPrivate(), Collections.singletonMap(kid, par.getPublic()));
+    }
+
+    /**
+     * Genera un archivo de llaves con un par nuevo en la salida estandar.
+     */
+    public static void main(String[] args) throws GeneralSecurityException {
+        KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+        generador.initialize(2048);
+        KeyPair par = generador.generateKeyPair();
+        String kid = args.length > 0 ? args[0] : UUID.randomUUID().toString();
+        System.out.println("activa=" + kid);
+        System.out.println(kid + ".privada=" + Base64.getEncoder().encodeToString(par.getPrivate().getEncoded()));
+        System.out.println(kid + ".publica=" + Base64.getEncoder().encodeToString(par.getPublic().getEncoded()));
+    }
+
+    private static class Llaves {
+
+        private final String kidActivo;
+        private final PrivateKey privadaActiva;
+        private final Map<String, PublicKey> publicas;
+
+        Llaves(String kidActivo, PrivateKey privadaActiva, Map<String, PublicKey> publicas) {
+            this.kidActivo = kidActivo;
+            this.privadaActiva = privadaActiva;
+            this.publicas = publicas;
+        }
+    }
+}
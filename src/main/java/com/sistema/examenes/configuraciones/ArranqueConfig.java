@@ -0,0 +1,49 @@
+package com.sistema.examenes.configuraciones;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Ajustes del perfil inicio-rapido (application-inicio-rapido.properties), que crea los beans
+ * recien cuando se usan por primera vez.
+ */
+@Configuration
+public class ArranqueConfig {
+
+    /**
+     * Las tareas programadas se registran al crear su bean; con inicializacion diferida no
+     * correrian nunca, asi que esos beans se siguen creando al arrancar.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter tareasProgramadasAlArrancar() {
+        return (nombre, definicion, tipo) -> !MethodIntrospector.selectMethods(tipo,
+                (MethodIntrospector.MetadataLookup<Scheduled>) metodo -> AnnotatedElementUtils.findMergedAnnotation(metodo, Scheduled.class)).isEmpty();
+    }
+
+    /**
+     * Beans cuyo efecto debe empezar con el proceso y no con su primer uso: la grabacion JFR
+     * continua solo arranca desde su @PostConstruct, y nadie la pide hasta que se vuelca.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter efectosAlArrancar() {
+        return LazyInitializationExcludeFilter.forBeanTypes(GrabacionContinua.class);
+    }
+
+    /**
+     * Termina el proceso en cuanto la aplicacion esta lista; lo usa la corrida de entrenamiento
+     * que genera el archivo CDS (perfil inicio-rapido del pom, con la base H2 del perfil entrenamiento-cds).
+     */
+    @Bean
+    @ConditionalOnProperty("examenes.arranque.salir-al-iniciar")
+    public ApplicationListener<ApplicationReadyEvent> salirAlIniciar() {
+        return evento -> System.exit(SpringApplication.exit(evento.getApplicationContext()));
+    }
+}
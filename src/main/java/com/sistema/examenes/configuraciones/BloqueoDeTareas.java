@@ -0,0 +1,50 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.repositorios.BloqueoDeTareaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Garantiza que una tarea programada corra en un solo nodo del cluster a la vez. Cada tarea
+ * tiene su fila en bloqueos_de_tareas; tomarla es un update condicional que se confirma en su
+ * propia transaccion, asi los demas nodos lo ven aunque la tarea use varias transacciones.
+ */
+@Component
+public class BloqueoDeTareas {
+
+    public static final String ARCHIVO_DE_EXAMENES = "archivo-de-examenes";
+
+    private final String nodo = UUID.randomUUID().toString();
+
+    @Autowired
+    private BloqueoDeTareaRepository bloqueoDeTareaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * La duracion debe superar lo que tarda la tarea: si el nodo muere sin liberar, otro nodo
+     * recien puede tomarla cuando vence.
+     */
+    public boolean tomar(String tarea, long duracionMs) {
+        long ahora = System.currentTimeMillis();
+        return enTransaccionPropia().execute(estado ->
+                bloqueoDeTareaRepository.tomar(tarea, nodo, new Date(ahora), new Date(ahora + duracionMs)) == 1);
+    }
+
+    public void liberar(String tarea) {
+        enTransaccionPropia().execute(estado -> bloqueoDeTareaRepository.liberar(tarea, nodo, new Date()));
+    }
+
+    private TransactionTemplate enTransaccionPropia() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaccion;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sistema.examenes.configuraciones;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caches de lo que se lee al rendir y calificar un examen. Son locales a cada nodo y vencen
+ * segun spring.cache.caffeine.spec: una edicion se ve al instante en el nodo que la hizo y en
+ * los demas cuando VersionesDeCatalogo refresca la version, o como mucho al vencer.
+ */
+@Configuration
+// por fuera de @Transactional: se desaloja despues del commit, no antes
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String EXAMENES = "examenes";
+    public static final String PREGUNTAS_DEL_EXAMEN = "preguntasDelExamen";
+    public static final String RESPUESTAS_CORRECTAS = "respuestasCorrectas";
+}
@@ -0,0 +1,107 @@
+package com.sistema.examenes.configuraciones;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.PreguntaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precarga los examenes activos antes de que el nodo reciba alumnos: recorre por cada uno el
+ * mismo camino que rendirlo y calificarlo, lo que llena las caches de CacheConfig, inicializa
+ * Hibernate y los serializadores de Jackson y da trabajo al JIT. Forma parte del grupo de salud
+ * readiness, que sigue en OUT_OF_SERVICE hasta que termina o se agota el presupuesto de tiempo.
+ */
+@Component
+public class CalentamientoDeExamenes implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CalentamientoDeExamenes.class);
+
+    @Autowired
+    private ExamenService examenService;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${examenes.calentamiento.presupuesto-ms:30000}")
+    private long presupuestoMs;
+
+    private final AtomicInteger calentados = new AtomicInteger();
+    private volatile int activos = -1;
+    private volatile long duracionMs = -1;
+    private volatile boolean terminado;
+    private volatile boolean detenido;
+    private volatile CompletableFuture<Void> tarea = CompletableFuture.completedFuture(null);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alQuedarLista() {
+        tarea = CompletableFuture.runAsync(this::calentar, ejecutar -> {
+            Thread hilo = new Thread(ejecutar, "calentamiento-examenes");
+            hilo.setDaemon(true);
+            hilo.start();
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        detenido = true;
+        tarea.join();
+    }
+
+    public void calentar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(presupuestoMs);
+        calentados.set(0);
+        try {
+            List<Examen> examenes = examenService.obtenerExamenesActivos();
+            activos = examenes.size();
+            for (Examen examen : examenes) {
+                if (detenido || System.nanoTime() - limite > 0) {
+                    log.warn("Calentamiento cortado por el presupuesto de {} ms: calentados={} activos={}", presupuestoMs, calentados.get(), activos);
+                    break;
+                }
+                List<Pregunta> preguntas = preguntaService.obtenerPreguntasParaRendir(examen.getExamenId());
+                objectMapper.writeValueAsBytes(preguntas);
+                objectMapper.writeValueAsBytes(preguntaService.evaluarExamen(preguntas));
+                calentados.incrementAndGet();
+            }
+        } catch (Exception exception) {
+            // un nodo frio sigue sirviendo; no se lo deja fuera del balanceador por esto
+            log.warn("El calentamiento de examenes fallo", exception);
+        } finally {
+            duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            terminado = true;
+            log.info("Calentamiento terminado: calentados={} activos={} duracionMs={}", calentados.get(), activos, duracionMs);
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder estado = terminado ? Health.up() : Health.outOfService();
+        return estado
+                .withDetail("examenesActivos", activos)
+                .withDetail("examenesCalentados", calentados.get())
+                .withDetail("completo", terminado && calentados.get() == activos)
+                .withDetail("duracionMs", duracionMs)
+                .withDetail("presupuestoMs", presupuestoMs)
+                .build();
+    }
+}
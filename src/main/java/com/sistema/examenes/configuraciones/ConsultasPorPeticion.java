@@ -0,0 +1,54 @@
+package com.sistema.examenes.configuraciones;
+
+/**
+ * Sentencias JDBC y tiempo de base de datos acumulados por el hilo de la peticion actual.
+ * Lo alimenta el listener del proxy del DataSource y lo lee FiltroDeConsultas al terminar.
+ */
+public class ConsultasPorPeticion {
+
+    private static final ThreadLocal<ConsultasPorPeticion> ACTUAL = new ThreadLocal<>();
+
+    private int sentencias;
+    private long tiempoMs;
+    private long tiempoMasLentaMs = -1;
+    private String masLenta;
+
+    public static ConsultasPorPeticion iniciar() {
+        ConsultasPorPeticion consultas = new ConsultasPorPeticion();
+        ACTUAL.set(consultas);
+        return consultas;
+    }
+
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    static void registrar(String sql, long tiempoMs) {
+        ConsultasPorPeticion consultas = ACTUAL.get();
+        if (consultas == null) {
+            return;
+        }
+        consultas.sentencias++;
+        consultas.tiempoMs += tiempoMs;
+        if (tiempoMs > consultas.tiempoMasLentaMs) {
+            consultas.tiempoMasLentaMs = tiempoMs;
+            consultas.masLenta = sql;
+        }
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getTiempoMs() {
+        return tiempoMs;
+    }
+
+    public long getTiempoMasLentaMs() {
+        return tiempoMasLentaMs;
+    }
+
+    public String getMasLenta() {
+        return masLenta;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sistema.examenes.configuraciones;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primaria y replica de lectura. Solo se activa cuando examenes.datasource.replica.url esta
+ * definida; sin ella Spring Boot crea el DataSource unico de siempre con spring.datasource.*.
+ */
+@Configuration
+@ConditionalOnProperty("examenes.datasource.replica.url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourceEscritura(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("escritura");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceLectura(@Value("${examenes.datasource.replica.url}") String url,
+                                              @Value("${examenes.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${examenes.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${examenes.datasource.replica.tamano-pool:20}") int tamanoPool) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(tamanoPool);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("lectura");
+        return dataSource;
+    }
+
+    @Bean
+    public EscriturasRecientes escriturasRecientes(@Value("${examenes.datasource.replica.ventana-ms:5000}") long ventanaMs) {
+        return new EscriturasRecientes(ventanaMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourceEscritura") DataSource escritura,
+                                 @Qualifier("dataSourceLectura") DataSource lectura,
+                                 EscriturasRecientes escriturasRecientes) {
+        return new LazyConnectionDataSourceProxy(new DataSourceEnrutado(escritura, lectura, escriturasRecientes));
+    }
+}
@@ -0,0 +1,103 @@
+package com.sistema.examenes.configuraciones;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envia las transacciones readOnly a la replica y todo lo demas a la primaria.
+ * Debe usarse detras de un LazyConnectionDataSourceProxy: la transaccion pide la conexion
+ * antes de marcarse como readOnly, y el proxy retrasa la eleccion hasta la primera sentencia.
+ * Un usuario cuenta como escritor reciente solo cuando se confirma una transaccion suya que
+ * ejecuto un insert, update o delete; una transaccion de escritura que solo lee no cuenta.
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource {
+
+    public static final String ESCRITURA = "escritura";
+    public static final String LECTURA = "lectura";
+
+    private final EscriturasRecientes escriturasRecientes;
+    // clave propia: el DataSource mismo ya es la clave de la conexion de la transaccion
+    private final Object escrituraEnCurso = new Object();
+
+    public DataSourceEnrutado(DataSource escritura, DataSource lectura, EscriturasRecientes escriturasRecientes) {
+        this.escriturasRecientes = escriturasRecientes;
+        Map<Object, Object> destinos = new HashMap<>();
+        DataSource primaria = ProxyDataSourceBuilder.create(escritura)
+                .name(ESCRITURA)
+                .afterQuery((ejecucion, consultas) -> {
+                    if (ejecucion.isSuccess()) {
+                        registrarSiEscribe(consultas);
+                    }
+                })
+                .build();
+        destinos.put(ESCRITURA, primaria);
+        destinos.put(LECTURA, lectura);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = usernameActual();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return username != null && escriturasRecientes.esReciente(username) ? ESCRITURA : LECTURA;
+        }
+        return ESCRITURA;
+    }
+
+    private void registrarSiEscribe(List<QueryInfo> consultas) {
+        String username = usernameActual();
+        if (username == null || !escribe(consultas)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // autocommit: la escritura ya quedo confirmada
+            escriturasRecientes.registrar(username);
+            return;
+        }
+        // una sola sincronizacion por transaccion, por muchas sentencias que ejecute
+        if (TransactionSynchronizationManager.hasResource(escrituraEnCurso)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(escrituraEnCurso, username);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escriturasRecientes.registrar(username);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(escrituraEnCurso);
+            }
+        });
+    }
+
+    private static boolean escribe(List<QueryInfo> consultas) {
+        for (QueryInfo consulta : consultas) {
+            QueryType tipo = QueryUtils.getQueryType(consulta.getQuery());
+            if (tipo == QueryType.INSERT || tipo == QueryType.UPDATE || tipo == QueryType.DELETE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String usernameActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.isAuthenticated() ? autenticacion.getName() : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.sistema.examenes.configuraciones;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Usuarios que escribieron en la base primaria hace menos de la ventana configurada.
+ * Mientras dure la ventana sus lecturas van a la primaria, para que no vean un estado
+ * anterior a su propia escritura por el retraso de la replica.
+ */
+public class EscriturasRecientes {
+
+    private final long ventanaNanos;
+    private final Map<String, Long> ultimaEscritura = new ConcurrentHashMap<>();
+
+    public EscriturasRecientes(long ventanaMs) {
+        this.ventanaNanos = TimeUnit.MILLISECONDS.toNanos(ventanaMs);
+    }
+
+    public void registrar(String username) {
+        ultimaEscritura.put(username, System.nanoTime());
+    }
+
+    public boolean esReciente(String username) {
+        Long instante = ultimaEscritura.get(username);
+        return instante != null && System.nanoTime() - instante < ventanaNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.datasource.replica.ventana-ms:5000}")
+    public void eliminarVencidas() {
+        long ahora = System.nanoTime();
+        ultimaEscritura.values().removeIf(instante -> ahora - instante >= ventanaNanos);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sistema.examenes.configuraciones;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente para claves de 128 bits (UUID).
+ * Las dos mitades de la clave ya son aleatorias, asi que se usan directamente
+ * como los dos hashes del esquema de doble hash de Kirsch-Mitzenmacher.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numeroDeBits;
+    private final int numeroDeHashes;
+
+    public FiltroBloom(long capacidad, double probabilidadFalsoPositivo) {
+        long m = (long) Math.ceil(-capacidad * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.numeroDeBits = palabras * 64L;
+        this.numeroDeHashes = Math.max(1, (int) Math.round((double) numeroDeBits / capacidad * Math.log(2)));
+    }
+
+    public void agregar(long alto, long bajo) {
+        for (int i = 0; i < numeroDeHashes; i++) {
+            long posicion = posicion(alto, bajo, i);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    public boolean puedeContener(long alto, long bajo) {
+        for (int i = 0; i < numeroDeHashes; i++) {
+            long posicion = posicion(alto, bajo, i);
+            if ((bits.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long posicion(long alto, long bajo, int i) {
+        return ((alto + i * bajo) & Long.MAX_VALUE) % numeroDeBits;
+    }
+
+    public long getNumeroDeBits() {
+        return numeroDeBits;
+    }
+}
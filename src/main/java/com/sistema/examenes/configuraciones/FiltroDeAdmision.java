@@ -0,0 +1,123 @@
+package com.sistema.examenes.configuraciones;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Control de admision para la entrega de examenes (/pregunta/examen/{id}).
+ * Cuando un examen se activa y todos los alumnos lo abren a la vez, las peticiones
+ * por encima del limite esperan en una cola corta; si la cola esta llena o la espera
+ * se agota se responde 429 con Retry-After y la posicion estimada.
+ * Corre dentro de la cadena de Spring Security, despues de la autorizacion, para que una
+ * peticion sin token no ocupe lugar en la cola. Entre todos los examenes no esperan mas
+ * de max-hilos-en-espera hilos, por debajo del pool de Tomcat; el resto se rechaza enseguida.
+ */
+@Component
+public class FiltroDeAdmision extends OncePerRequestFilter {
+
+    private static final Pattern ENTREGA_DE_EXAMEN = Pattern.compile("^/pregunta/examen/(\\d+)/?$");
+
+    private final Map<Long, LimitadorDeExamen> limitadores = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${examenes.admision.limite-inicial:32}")
+    private int limiteInicial;
+
+    @Value("${examenes.admision.limite-minimo:4}")
+    private int limiteMinimo;
+
+    @Value("${examenes.admision.limite-maximo:256}")
+    private int limiteMaximo;
+
+    @Value("${examenes.admision.capacidad-cola:50}")
+    private int capacidadCola;
+
+    @Value("${examenes.admision.espera-maxima-ms:1000}")
+    private long esperaMaximaMs;
+
+    @Value("${examenes.admision.latencia-objetivo-ms:250}")
+    private long latenciaObjetivoMs;
+
+    private final Semaphore esperasDisponibles;
+
+    public FiltroDeAdmision(@Value("${examenes.admision.max-hilos-en-espera:50}") int maxHilosEnEspera,
+                            @Value("${server.tomcat.threads.max:200}") int hilosDelServidor) {
+        // siempre quedan hilos libres para las peticiones que no son de admision
+        this.esperasDisponibles = new Semaphore(Math.max(0, Math.min(maxHilosEnEspera, hilosDelServidor / 2)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = ENTREGA_DE_EXAMEN.matcher(ruta);
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        LimitadorDeExamen limitador = limitadores.computeIfAbsent(Long.valueOf(matcher.group(1)),
+                examenId -> new LimitadorDeExamen(limiteInicial, limiteMinimo, limiteMaximo, capacidadCola, latenciaObjetivoMs, esperasDisponibles));
+        LimitadorDeExamen.Resultado resultado = limitador.adquirir(esperaMaximaMs);
+        if (!resultado.isAdmitido()) {
+            rechazar(response, resultado);
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limitador.liberar(System.nanoTime() - inicio);
+        }
+    }
+
+    private void rechazar(HttpServletResponse response, LimitadorDeExamen.Resultado resultado) throws IOException {
+        long reintentarEn = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(resultado.getEsperaEstimadaMs() + 999));
+
+        Map<String, Object> cuerpo = new HashMap<>();
+        cuerpo.put("mensaje", "Demasiados alumnos iniciando el examen, vuelva a intentar en unos segundos");
+        cuerpo.put("posicion", resultado.getPosicion());
+        cuerpo.put("esperaEstimadaMs", resultado.getEsperaEstimadaMs());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(reintentarEn));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), cuerpo);
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.admision.limpieza-ms:60000}")
+    public void eliminarLimitadoresInactivos() {
+        long corte = System.nanoTime() - TimeUnit.MINUTES.toNanos(5);
+        limitadores.values().removeIf(limitador -> limitador.inactivoDesde(corte));
+    }
+
+    public Map<Long, LimitadorDeExamen> getLimitadores() {
+        return limitadores;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sistema.examenes.configuraciones;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las sentencias JDBC y el tiempo de base de datos de cada peticion, incluido lo que
+ * ejecuta la cadena de seguridad. Publica los agregados por endpoint y registra las peticiones
+ * que superan los umbrales con su sentencia mas lenta, que es donde aparecen los N+1.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class FiltroDeConsultas extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroDeConsultas.class);
+
+    private static final RegistroMuestreado excesos = new RegistroMuestreado(log, 10, TimeUnit.SECONDS);
+
+    private static final int LONGITUD_MAXIMA_SQL = 500;
+
+    @Value("${examenes.sql.umbral-sentencias:20}")
+    private int umbralSentencias;
+
+    @Value("${examenes.sql.umbral-ms:500}")
+    private long umbralMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ConsultasPorPeticion consultas = ConsultasPorPeticion.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsultasPorPeticion.terminar();
+            registrar(request, consultas);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ConsultasPorPeticion consultas) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("examenes.sql.sentencias")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry)
+                .record(consultas.getSentencias());
+        Timer.builder("examenes.sql.tiempo")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry)
+                .record(consultas.getTiempoMs(), TimeUnit.MILLISECONDS);
+
+        if (consultas.getSentencias() > umbralSentencias || consultas.getTiempoMs() > umbralMs) {
+            String endpoint = request.getMethod() + " " + uri;
+            excesos.advertir(endpoint, "Peticion con exceso de consultas: endpoint=\"{}\" sentencias={} tiempoMs={} masLentaMs={} masLenta=\"{}\"",
+                    endpoint, consultas.getSentencias(), consultas.getTiempoMs(),
+                    consultas.getTiempoMasLentaMs(), recortar(consultas.getMasLenta()));
+        }
+    }
+
+    private static String recortar(String sql) {
+        if (sql == null || sql.length() <= LONGITUD_MAXIMA_SQL) {
+            return sql;
+        }
+        return sql.substring(0, LONGITUD_MAXIMA_SQL) + "...";
+    }
+}
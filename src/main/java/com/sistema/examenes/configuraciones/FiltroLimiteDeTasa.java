@@ -0,0 +1,227 @@
+package com.sistema.examenes.configuraciones;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita por IP y por username las peticiones anonimas que ejecutan BCrypt
+ * (POST /generate-token y POST /usuarios/) antes de que lleguen al AuthenticationManager.
+ * Los rechazos se escriben aca mismo como JSON (429, o 413 si el cuerpo supera 16 KB), sin
+ * pasar por /error. La IP es la del cliente y no la del balanceador: con
+ * server.forward-headers-strategy=native Tomcat toma getRemoteAddr de X-Forwarded-For, pero
+ * solo si la conexion viene de un proxy de server.tomcat.remoteip.internal-proxies, asi que un
+ * cliente directo no puede elegir su IP.
+ */
+@Component
+public class FiltroLimiteDeTasa extends OncePerRequestFilter implements MeterBinder {
+
+    private static final int TAMANO_MAXIMO_CUERPO = 16 * 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${examenes.limite-tasa.ip.capacidad:20}")
+    private int capacidadPorIp;
+
+    @Value("${examenes.limite-tasa.ip.por-minuto:60}")
+    private int porMinutoPorIp;
+
+    @Value("${examenes.limite-tasa.username.capacidad:10}")
+    private int capacidadPorUsername;
+
+    @Value("${examenes.limite-tasa.username.por-minuto:30}")
+    private int porMinutoPorUsername;
+
+    @Value("${examenes.limite-tasa.inactividad-ms:600000}")
+    private long inactividadMs;
+
+    private LimitadorDeTasa limitadorPorIp;
+    private LimitadorDeTasa limitadorPorUsername;
+
+    @PostConstruct
+    public void inicializar() {
+        limitadorPorIp = new LimitadorDeTasa("ip", capacidadPorIp, porMinutoPorIp);
+        limitadorPorUsername = new LimitadorDeTasa("username", capacidadPorUsername, porMinutoPorUsername);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (LimitadorDeTasa limitador : new LimitadorDeTasa[]{limitadorPorIp, limitadorPorUsername}) {
+            FunctionCounter.builder("examenes.limite.tasa.admitidas", limitador, LimitadorDeTasa::getAdmitidas)
+                    .tag("limitador", limitador.getNombre()).register(registry);
+            FunctionCounter.builder("examenes.limite.tasa.rechazadas", limitador, LimitadorDeTasa::getRechazadas)
+                    .tag("limitador", limitador.getNombre()).register(registry);
+            Gauge.builder("examenes.limite.tasa.claves", limitador, LimitadorDeTasa::getClavesActivas)
+                    .tag("limitador", limitador.getNombre()).register(registry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        return !ruta.equals("/generate-token") && !ruta.equals("/usuarios/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long espera = limitadorPorIp.intentar(request.getRemoteAddr());
+        if (espera > 0) {
+            rechazar(response, espera);
+            return;
+        }
+
+        byte[] cuerpo = leerCuerpo(request);
+        if (cuerpo == null) {
+            responder(response, HttpStatus.PAYLOAD_TOO_LARGE, "El cuerpo de la peticion es demasiado grande");
+            return;
+        }
+        CuerpoEnMemoriaRequest requestConCuerpo = new CuerpoEnMemoriaRequest(request, cuerpo);
+        String username = extraerUsername(requestConCuerpo.cuerpo);
+        if (username != null) {
+            espera = limitadorPorUsername.intentar(username);
+            if (espera > 0) {
+                rechazar(response, espera);
+                return;
+            }
+        }
+        filterChain.doFilter(requestConCuerpo, response);
+    }
+
+    /**
+     * Devuelve null si el cuerpo supera TAMANO_MAXIMO_CUERPO.
+     */
+    private byte[] leerCuerpo(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > TAMANO_MAXIMO_CUERPO) {
+            return null;
+        }
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.min(Math.max(request.getContentLength(), 256), TAMANO_MAXIMO_CUERPO + 1));
+        long copiados = StreamUtils.copyRange(request.getInputStream(), salida, 0, TAMANO_MAXIMO_CUERPO);
+        return copiados > TAMANO_MAXIMO_CUERPO ? null : salida.toByteArray();
+    }
+
+    private String extraerUsername(byte[] cuerpo) {
+        if (cuerpo.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(cuerpo).get("username");
+            return username != null && username.isTextual() ? username.asText() : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private void rechazar(HttpServletResponse response, long esperaNanos) throws IOException {
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos) + 1)));
+        responder(response, HttpStatus.TOO_MANY_REQUESTS, "Demasiadas peticiones, vuelva a intentar mas tarde");
+    }
+
+    private void responder(HttpServletResponse response, HttpStatus estado, String mensaje) throws IOException {
+        response.setStatus(estado.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Collections.singletonMap("mensaje", mensaje));
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.limite-tasa.limpieza-ms:60000}")
+    public void eliminarClavesInactivas() {
+        long inactividadNanos = TimeUnit.MILLISECONDS.toNanos(inactividadMs);
+        limitadorPorIp.eliminarInactivas(inactividadNanos);
+        limitadorPorUsername.eliminarInactivas(inactividadNanos);
+    }
+
+    public LimitadorDeTasa getLimitadorPorIp() {
+        return limitadorPorIp;
+    }
+
+    public LimitadorDeTasa getLimitadorPorUsername() {
+        return limitadorPorUsername;
+    }
+
+    private static class CuerpoEnMemoriaRequest extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoEnMemoriaRequest(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // el cuerpo ya esta en memoria: todo lo que queda se puede leer sin bloquear
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException exception) {
+                        readListener.onError(exception);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
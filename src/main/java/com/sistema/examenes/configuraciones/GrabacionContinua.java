@@ -0,0 +1,75 @@
+package com.sistema.examenes.configuraciones;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Grabacion de Flight Recorder que corre mientras vive la aplicacion, con los eventos
+ * del paquete eventos mas los del perfil configurado (asignacion, bloqueos, GC...).
+ * Guarda solo la ventana reciente y se vuelca a disco bajo demanda.
+ */
+@Component
+public class GrabacionContinua {
+
+    private static final Logger log = LoggerFactory.getLogger(GrabacionContinua.class);
+
+    @Value("${examenes.jfr.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${examenes.jfr.configuracion:default}")
+    private String configuracion;
+
+    @Value("${examenes.jfr.antiguedad-maxima-min:30}")
+    private long antiguedadMaximaMin;
+
+    @Value("${examenes.jfr.tamano-maximo-mb:200}")
+    private long tamanoMaximoMb;
+
+    private Recording grabacion;
+
+    @PostConstruct
+    public void iniciar() throws IOException, ParseException {
+        if (!habilitada) {
+            return;
+        }
+        grabacion = new Recording(Configuration.getConfiguration(configuracion));
+        grabacion.setName("sistema-examenes");
+        grabacion.setToDisk(true);
+        grabacion.setMaxAge(Duration.ofMinutes(antiguedadMaximaMin));
+        grabacion.setMaxSize(tamanoMaximoMb * 1024 * 1024);
+        grabacion.start();
+        log.info("Grabacion JFR continua iniciada: configuracion={} antiguedadMaximaMin={} tamanoMaximoMb={}",
+                configuracion, antiguedadMaximaMin, tamanoMaximoMb);
+    }
+
+    /**
+     * Copia la ventana grabada hasta ahora en un archivo temporal; la grabacion sigue activa.
+     */
+    public Path volcar() throws IOException {
+        if (grabacion == null) {
+            throw new IllegalStateException("La grabacion JFR continua no esta habilitada");
+        }
+        Path archivo = Files.createTempFile("sistema-examenes-", ".jfr");
+        grabacion.dump(archivo);
+        return archivo;
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+}
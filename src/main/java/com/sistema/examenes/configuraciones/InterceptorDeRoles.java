@@ -0,0 +1,29 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.modelo.Rol;
+import org.hibernate.EmptyInterceptor;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Los roles tienen id asignado, asi que Hibernate no sabe si uno desasociado ya existe y lo
+ * consulta antes de insertar cada usuario_rol. Solo se evita la consulta para las instancias
+ * que entrega RegistroDeRoles, leidas de la tabla al arrancar; cualquier otro Rol sigue el
+ * camino normal de Hibernate.
+ */
+public class InterceptorDeRoles extends EmptyInterceptor {
+
+    // Rol no redefine equals, asi que se comparan por identidad; las referencias debiles no retienen catalogos viejos
+    private static final Set<Rol> DEL_CATALOGO = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static void registrar(Rol rol) {
+        DEL_CATALOGO.add(rol);
+    }
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        return entity instanceof Rol && DEL_CATALOGO.contains(entity) ? Boolean.FALSE : null;
+    }
+}
@@ -1,7 +1,12 @@
 package com.sistema.examenes.configuraciones;
 
+import com.sistema.examenes.eventos.EventoValidacionDeToken;
+import com.sistema.examenes.servicios.RevocacionTokenService;
 import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,47 +20,68 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final RegistroMuestreado fallos = new RegistroMuestreado(log, 10, TimeUnit.SECONDS);
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private JwtUtils jwtUtil;
 
+    @Autowired
+    private RevocacionTokenService revocacionTokenService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String requestTokenHeader = request.getHeader("Authorization");
         String username = null;
         String jwtToken = null;
+        Claims claims = null;
+        EventoValidacionDeToken evento = null;
 
         if(requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")){
             jwtToken = requestTokenHeader.substring(7);
+            evento = new EventoValidacionDeToken();
+            evento.begin();
 
             try{
-                username = this.jwtUtil.extractUsername(jwtToken);
+                claims = this.jwtUtil.extractAllClaims(jwtToken);
+                username = claims.getSubject();
+                evento.resultado = "valido";
             }catch (ExpiredJwtException exception){
-                System.out.println("El token ha expirado");
+                evento.resultado = "expirado";
+                log.debug("El token ha expirado: subject={}", exception.getClaims().getSubject());
             }catch (Exception e){
-                e.printStackTrace();
+                evento.resultado = "invalido";
+                fallos.advertir("invalido", "Token rechazado: motivo={} uri={} ip={}", e.getClass().getSimpleName(), request.getRequestURI(), request.getRemoteAddr());
             }
 
-        }else{
-            System.out.println("Token invalido , no empieza con bearer string");
         }
 
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
+        if(username != null && this.revocacionTokenService.estaRevocado(claims)){
+            evento.resultado = "revocado";
+            fallos.advertir("revocado", "Token revocado: subject={} jti={} ip={}", username, claims.getId(), request.getRemoteAddr());
+        }else if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if(this.jwtUtil.validateToken(jwtToken,userDetails)){
+            if(this.jwtUtil.validateToken(claims,userDetails)){
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+            }else{
+                evento.resultado = "invalido";
             }
-        }else{
-            System.out.println("El token no es valido");
+        }
+        if(evento != null){
+            evento.username = username;
+            evento.commit();
         }
         filterChain.doFilter(request,response);
     }
@@ -1,22 +1,58 @@
 package com.sistema.examenes.configuraciones;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 
 @Component
 public class JwtUtils {
 
-    private String SECRET_KEY = "examportal";
+    private static final Timer TIEMPO_DE_PARSEO = Metrics.timer("examenes.jwt.parseo");
+
+    @Autowired
+    private AlmacenDeLlaves almacenDeLlaves;
+
+    private final SigningKeyResolver resolvedorDeLlaves = new SigningKeyResolverAdapter() {
+        // jjwt 0.9 declara el parametro sin tipo; se acota en cuanto entra
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return llaveDeFirma((JwsHeader<?>) header);
+        }
+    };
+
+    private Key llaveDeFirma(JwsHeader<?> header) {
+        if (!SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Algoritmo de firma no permitido: " + header.getAlgorithm());
+        }
+        Key llave = almacenDeLlaves.getLlavePublica(header.getKeyId());
+        if (llave == null) {
+            throw new UnsupportedJwtException("Llave de firma desconocida: " + header.getKeyId());
+        }
+        return llave;
+    }
+
+    @Value("${examenes.jwt.duracion-ms:900000}")
+    private long duracionMs;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -30,8 +66,8 @@ public class JwtUtils {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    public Claims extractAllClaims(String token) {
+        return TIEMPO_DE_PARSEO.record(() -> Jwts.parser().setSigningKeyResolver(resolvedorDeLlaves).parseClaimsJws(token).getBody());
     }
 
     private Boolean isTokenExpired(String token) {
@@ -45,9 +81,9 @@ public class JwtUtils {
 
     private String createToken(Map<String, Object> claims, String subject) {
 
-        return Jwts.builder().setClaims(claims).setSubject(subject).setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY).compact();
+        return Jwts.builder().setHeaderParam(JwsHeader.KEY_ID, almacenDeLlaves.getKidActivo()).setClaims(claims).setId(UUID.randomUUID().toString()).setSubject(subject).setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + duracionMs))
+                .signWith(SignatureAlgorithm.RS256, almacenDeLlaves.getLlavePrivadaActiva()).compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
@@ -55,4 +91,8 @@ public class JwtUtils {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
+    }
+
 }
@@ -0,0 +1,161 @@
+package com.sistema.examenes.configuraciones;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limite de concurrencia de un examen con cola de espera FIFO acotada.
+ * El limite se ajusta segun la latencia observada: crece de uno en uno mientras
+ * las respuestas esten por debajo del objetivo y se reduce un 10% cuando lo superan, a lo sumo
+ * una vez por ida y vuelta: solo cuenta una respuesta lenta que empezo despues de la ultima
+ * reduccion. Los hilos en espera se toman de un cupo compartido por todos los examenes, para
+ * que las colas nunca ocupen todos los hilos del servidor.
+ */
+public class LimitadorDeExamen {
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final int capacidadCola;
+    private final long latenciaObjetivoNanos;
+    private final Semaphore esperasDisponibles;
+
+    private final ArrayDeque<Object> cola = new ArrayDeque<>();
+    private int limite;
+    private int enCurso;
+    private double latenciaPromedioNanos;
+    private long ultimoUso = System.nanoTime();
+    private boolean reducido;
+    private long ultimaReduccion;
+
+    public LimitadorDeExamen(int limiteInicial, int limiteMinimo, int limiteMaximo, int capacidadCola, long latenciaObjetivoMs) {
+        this(limiteInicial, limiteMinimo, limiteMaximo, capacidadCola, latenciaObjetivoMs, new Semaphore(Integer.MAX_VALUE));
+    }
+
+    public LimitadorDeExamen(int limiteInicial, int limiteMinimo, int limiteMaximo, int capacidadCola, long latenciaObjetivoMs,
+                             Semaphore esperasDisponibles) {
+        this.esperasDisponibles = esperasDisponibles;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.capacidadCola = capacidadCola;
+        this.latenciaObjetivoNanos = latenciaObjetivoMs * 1_000_000L;
+        this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, limiteInicial));
+        this.latenciaPromedioNanos = this.latenciaObjetivoNanos;
+    }
+
+    public synchronized Resultado adquirir(long esperaMaximaMs) {
+        ultimoUso = System.nanoTime();
+        if (cola.isEmpty() && enCurso < limite) {
+            enCurso++;
+            return Resultado.ADMITIDO;
+        }
+        if (cola.size() >= capacidadCola || esperaMaximaMs <= 0 || !esperasDisponibles.tryAcquire()) {
+            return rechazo(cola.size() + 1);
+        }
+
+        Object turno = new Object();
+        cola.addLast(turno);
+        long limiteEspera = System.nanoTime() + esperaMaximaMs * 1_000_000L;
+        try {
+            while (cola.peekFirst() != turno || enCurso >= limite) {
+                long restante = limiteEspera - System.nanoTime();
+                if (restante <= 0) {
+                    int posicion = posicionDe(turno);
+                    cola.remove(turno);
+                    notifyAll();
+                    return rechazo(posicion);
+                }
+                wait(restante / 1_000_000L, (int) (restante % 1_000_000L));
+            }
+        } catch (InterruptedException exception) {
+            cola.remove(turno);
+            notifyAll();
+            Thread.currentThread().interrupt();
+            return rechazo(cola.size() + 1);
+        } finally {
+            esperasDisponibles.release();
+        }
+        cola.pollFirst();
+        enCurso++;
+        notifyAll();
+        return Resultado.ADMITIDO;
+    }
+
+    public synchronized void liberar(long latenciaNanos) {
+        boolean saturado = enCurso >= limite;
+        enCurso--;
+        long ahora = System.nanoTime();
+        ultimoUso = ahora;
+        latenciaPromedioNanos = latenciaPromedioNanos * 0.8 + latenciaNanos * 0.2;
+
+        if (latenciaNanos > latenciaObjetivoNanos) {
+            // las demas respuestas lentas de la misma rafaga ya estaban en curso con el limite anterior
+            if (!reducido || ahora - latenciaNanos - ultimaReduccion > 0) {
+                limite = Math.max(limiteMinimo, (int) (limite * 0.9));
+                reducido = true;
+                ultimaReduccion = ahora;
+            }
+        } else if (saturado && limite < limiteMaximo) {
+            limite++;
+        }
+        notifyAll();
+    }
+
+    public synchronized boolean inactivoDesde(long nanos) {
+        return enCurso == 0 && cola.isEmpty() && ultimoUso < nanos;
+    }
+
+    public synchronized int getLimite() {
+        return limite;
+    }
+
+    public synchronized int getEnCurso() {
+        return enCurso;
+    }
+
+    public synchronized int getEnEspera() {
+        return cola.size();
+    }
+
+    private int posicionDe(Object turno) {
+        int posicion = 1;
+        for (Object otro : cola) {
+            if (otro == turno) {
+                return posicion;
+            }
+            posicion++;
+        }
+        return posicion;
+    }
+
+    private Resultado rechazo(int posicion) {
+        long esperaEstimadaMs = (long) (posicion * latenciaPromedioNanos / limite / 1_000_000L);
+        return new Resultado(false, posicion, esperaEstimadaMs);
+    }
+
+    public static class Resultado {
+
+        static final Resultado ADMITIDO = new Resultado(true, 0, 0);
+
+        private final boolean admitido;
+        private final int posicion;
+        private final long esperaEstimadaMs;
+
+        Resultado(boolean admitido, int posicion, long esperaEstimadaMs) {
+            this.admitido = admitido;
+            this.posicion = posicion;
+            this.esperaEstimadaMs = esperaEstimadaMs;
+        }
+
+        public boolean isAdmitido() {
+            return admitido;
+        }
+
+        public int getPosicion() {
+            return posicion;
+        }
+
+        public long getEsperaEstimadaMs() {
+            return esperaEstimadaMs;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sistema.examenes.configuraciones;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket sin bloqueos implementado como GCRA: por cada clave solo se guarda
+ * el instante teorico de llegada (TAT) en un AtomicLong y se actualiza con CAS.
+ * Una clave admite rafagas de {@code capacidad} peticiones y se recarga a razon
+ * de {@code porMinuto} peticiones por minuto.
+ */
+public class LimitadorDeTasa {
+
+    private final String nombre;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final Map<String, AtomicLong> cubetas = new ConcurrentHashMap<>();
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    public LimitadorDeTasa(String nombre, int capacidad, int porMinuto) {
+        this.nombre = nombre;
+        this.intervaloNanos = TimeUnit.MINUTES.toNanos(1) / porMinuto;
+        this.toleranciaNanos = intervaloNanos * capacidad;
+    }
+
+    /**
+     * @return 0 si la peticion se admite, o los nanosegundos que faltan para que vuelva a haber un token
+     */
+    public long intentar(String clave) {
+        AtomicLong tat = cubetas.computeIfAbsent(clave, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long ahora = System.nanoTime();
+            long actual = tat.get();
+            long base = actual - ahora < 0 ? ahora : actual;
+            long nuevo = base + intervaloNanos;
+            long exceso = nuevo - ahora - toleranciaNanos;
+            if (exceso > 0) {
+                rechazadas.increment();
+                return exceso;
+            }
+            if (tat.compareAndSet(actual, nuevo)) {
+                admitidas.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Elimina las claves cuya cubeta esta llena desde hace mas de {@code inactividadNanos};
+     * volver a crearlas es equivalente a conservarlas.
+     */
+    public void eliminarInactivas(long inactividadNanos) {
+        long ahora = System.nanoTime();
+        cubetas.values().removeIf(tat -> ahora - tat.get() > inactividadNanos);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getClavesActivas() {
+        return cubetas.size();
+    }
+
+    public long getAdmitidas() {
+        return admitidas.sum();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+}
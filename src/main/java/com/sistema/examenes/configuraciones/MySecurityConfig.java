@@ -1,7 +1,11 @@
 package com.sistema.examenes.configuraciones;
 
 import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +17,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @EnableWebSecurity
@@ -29,6 +34,20 @@ public class MySecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private FiltroLimiteDeTasa filtroLimiteDeTasa;
+
+    @Autowired
+    private FiltroDeAdmision filtroDeAdmision;
+
+    // la admision solo corre dentro de la cadena de seguridad, ya autorizada
+    @Bean
+    public FilterRegistrationBean<FiltroDeAdmision> registroFiltroDeAdmision() {
+        FilterRegistrationBean<FiltroDeAdmision> registro = new FilterRegistrationBean<>(filtroDeAdmision);
+        registro.setEnabled(false);
+        return registro;
+    }
+
     @Override
     @Bean
     public AuthenticationManager authenticationManagerBean() throws Exception {
@@ -37,7 +56,19 @@ public class MySecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Bean
     public BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        Timer tiempoDeVerificacion = Metrics.timer("examenes.bcrypt.verificacion");
+        Timer tiempoDeCodificacion = Metrics.timer("examenes.bcrypt.codificacion");
+        return new BCryptPasswordEncoder(){
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return tiempoDeVerificacion.record(() -> super.matches(rawPassword, encodedPassword));
+            }
+
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return tiempoDeCodificacion.record(() -> super.encode(rawPassword));
+            }
+        };
     }
 
     @Override
@@ -53,14 +84,19 @@ public class MySecurityConfig extends WebSecurityConfigurerAdapter {
                 .cors()
                 .disable()
                 .authorizeRequests()
-                .antMatchers("/generate-token","/usuarios/").permitAll()
+                .antMatchers("/generate-token","/refresh-token","/usuarios/").permitAll()
                 .antMatchers(HttpMethod.OPTIONS).permitAll()
+                // sondas del balanceador y scraping de Prometheus; el resto de actuator, aunque se exponga despues, solo ADMIN
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority("ADMIN")
                 .anyRequest().authenticated()
                 .and()
                 .exceptionHandling().authenticationEntryPoint(unauthorizedHandler)
                 .and()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
+        http.addFilterBefore(filtroLimiteDeTasa, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(filtroDeAdmision, FilterSecurityInterceptor.class);
     }
 }
@@ -0,0 +1,41 @@
+package com.sistema.examenes.configuraciones;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Envuelve el DataSource en un proxy que cuenta las sentencias de cada peticion
+ * (ver ConsultasPorPeticion). Cada ejecucion JDBC cuenta como una sentencia, un batch incluido.
+ */
+@Component
+public class ProxyDeDataSource implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // con replica solo se envuelve el DataSource enrutado, no cada pool por separado
+        if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource || !"dataSource".equals(beanName)) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(new QueryExecutionListener() {
+                    @Override
+                    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    }
+
+                    @Override
+                    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                        ConsultasPorPeticion.registrar(queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery(), execInfo.getElapsedTime());
+                    }
+                })
+                .build();
+    }
+}
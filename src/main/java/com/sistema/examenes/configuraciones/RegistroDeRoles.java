@@ -0,0 +1,57 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.modelo.Authority;
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.repositorios.RolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Catalogo de roles leido una sola vez al arrancar. Las altas de usuarios toman de aqui el rol
+ * que asignan, asi que nunca vuelven a consultar ni escribir la tabla roles, que se siembra
+ * con la migracion V5.
+ */
+@Component
+public class RegistroDeRoles {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroDeRoles.class);
+
+    public static final long ADMIN = 1L;
+    public static final long NORMAL = 2L;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    private Map<Long, Rol> roles;
+
+    @PostConstruct
+    public void cargar() {
+        Map<Long, Rol> cargados = new HashMap<>();
+        for (Rol rol : rolRepository.findAll()) {
+            Rol delCatalogo = new Rol(rol.getRolId(), rol.getRolNombre());
+            InterceptorDeRoles.registrar(delCatalogo);
+            cargados.put(rol.getRolId(), delCatalogo);
+            Authority.de(rol.getRolNombre());
+        }
+        roles = Collections.unmodifiableMap(cargados);
+        log.info("Roles cargados: {}", roles.size());
+    }
+
+    /**
+     * Rol desasociado de cualquier sesion, compartido por todas las altas: no debe modificarse.
+     */
+    public Rol rol(long rolId) {
+        Rol rol = roles.get(rolId);
+        if (rol == null) {
+            throw new IllegalStateException("El rol " + rolId + " no existe en la tabla roles");
+        }
+        return rol;
+    }
+}
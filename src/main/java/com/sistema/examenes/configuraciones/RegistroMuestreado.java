@@ -0,0 +1,59 @@
+package com.sistema.examenes.configuraciones;
+
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra como maximo un mensaje por motivo en cada intervalo y resume los que se omitieron,
+ * para que una rafaga de fallos repetidos (tokens caducados, firmas invalidas) no sature el log.
+ */
+public class RegistroMuestreado {
+
+    private final Logger logger;
+    private final long intervaloNanos;
+    private final Map<String, Motivo> motivos = new ConcurrentHashMap<>();
+
+    public RegistroMuestreado(Logger logger, long intervalo, TimeUnit unidad) {
+        this.logger = logger;
+        this.intervaloNanos = unidad.toNanos(intervalo);
+    }
+
+    public void advertir(String motivo, String mensaje, Object... argumentos) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        Motivo estado = motivos.computeIfAbsent(motivo, clave -> new Motivo(System.nanoTime() - intervaloNanos));
+        long ahora = System.nanoTime();
+        long ultimo = estado.ultimoRegistro.get();
+        if (ahora - ultimo < intervaloNanos || !estado.ultimoRegistro.compareAndSet(ultimo, ahora)) {
+            estado.omitidos.increment();
+            return;
+        }
+        long omitidos = estado.omitidos.sumThenReset();
+        if (omitidos > 0) {
+            logger.warn("{} (omitidos {} mensajes iguales desde el ultimo registro)", formatear(mensaje, argumentos), omitidos);
+        } else {
+            logger.warn(mensaje, argumentos);
+        }
+    }
+
+    private static String formatear(String mensaje, Object... argumentos) {
+        return MessageFormatter.arrayFormat(mensaje, argumentos).getMessage();
+    }
+
+    private static class Motivo {
+
+        private final AtomicLong ultimoRegistro;
+        private final LongAdder omitidos = new LongAdder();
+
+        Motivo(long ultimoRegistro) {
+            this.ultimoRegistro = new AtomicLong(ultimoRegistro);
+        }
+    }
+}
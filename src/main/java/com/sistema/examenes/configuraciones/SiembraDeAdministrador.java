@@ -0,0 +1,91 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.excepciones.UsuarioFoundException;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.servicios.UsuarioService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Crea el usuario administrador si todavia no existe. Corre en un hilo propio cuando la aplicacion
+ * ya esta lista, asi que el arranque no espera el BCrypt ni la consulta; en los reinicios, con
+ * el administrador ya creado, solo cuesta la verificacion de existencia. Al cerrar el contexto se
+ * espera a que termine, antes de que se cierre el EntityManagerFactory que usa.
+ */
+@Component
+public class SiembraDeAdministrador {
+
+    private static final Logger log = LoggerFactory.getLogger(SiembraDeAdministrador.class);
+
+    private static final String USERNAME = "admin";
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
+
+    @Autowired
+    private RegistroDeRoles registroDeRoles;
+
+    private volatile CompletableFuture<Void> siembra = CompletableFuture.completedFuture(null);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alQuedarLista() {
+        siembra = CompletableFuture.runAsync(() -> {
+            try {
+                sembrar();
+            } catch (Exception exception) {
+                log.error("No se pudo crear el usuario administrador", exception);
+            }
+        }, tarea -> {
+            Thread hilo = new Thread(tarea, "siembra-administrador");
+            hilo.setDaemon(true);
+            hilo.start();
+        });
+    }
+
+    @PreDestroy
+    public void esperarSiembra() {
+        siembra.join();
+    }
+
+    void sembrar() throws Exception {
+        if (usuarioService.existeUsuario(USERNAME)) {
+            log.debug("El usuario administrador ya existe");
+            return;
+        }
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Elias ADMIN");
+        usuario.setApellido("Valle");
+        usuario.setUsername(USERNAME);
+        usuario.setPassword(bCryptPasswordEncoder.encode("123"));
+        usuario.setEmail("admin@gmail.com");
+        usuario.setTelefono("988212020");
+        usuario.setPerfil("foto.png");
+
+        UsuarioRol usuarioRol = new UsuarioRol();
+        usuarioRol.setRol(registroDeRoles.rol(RegistroDeRoles.ADMIN));
+        usuarioRol.setUsuario(usuario);
+        usuario.getUsuarioRoles().add(usuarioRol);
+
+        try {
+            usuarioService.guardarUsuario(usuario, Collections.emptySet());
+            log.info("Usuario administrador creado: {}", USERNAME);
+        } catch (UsuarioFoundException | DataIntegrityViolationException exception) {
+            // otra instancia lo creo entre la verificacion y el alta
+            log.debug("El usuario administrador ya existe");
+        }
+    }
+}
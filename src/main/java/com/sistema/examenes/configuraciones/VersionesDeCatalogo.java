@@ -0,0 +1,179 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.VersionDeCatalogoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Version de cada agregado del catalogo, de la que salen los ETag de sus listados. Los servicios
+ * la incrementan en la tabla versiones_catalogo dentro de la transaccion de cada escritura; este
+ * nodo toma el valor nuevo al hacer commit y el de los demas nodos con un refresco periodico, asi
+ * que comparar un If-None-Match nunca consulta la base. Cuando el refresco ve avanzar examenes o
+ * preguntas vacia las caches de CacheConfig, asi que una edicion hecha en otro nodo se califica
+ * con la clave nueva apenas llega el refresco y no recien al vencer la cache.
+ * Cada examen tiene ademas su propia version (columna examenes.version) para los ETag de
+ * /examen/{id} y de sus preguntas; el nodo recuerda las que ya leyo hasta que cambia alguno.
+ * Los ETag son debiles: la misma version sirve para JSON, CBOR, Smile y sus variantes comprimidas.
+ */
+@Component
+public class VersionesDeCatalogo {
+
+    public static final String CATEGORIAS = "categorias";
+    public static final String EXAMENES = "examenes";
+    public static final String PREGUNTAS = "preguntas";
+
+    private static final List<String> CACHES_DE_EXAMENES = Arrays.asList(
+            CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS);
+
+    @Autowired
+    private VersionDeCatalogoRepository versionDeCatalogoRepository;
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // null en los contextos de prueba que no habilitan las caches
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    private final Map<String, Long> versiones = new ConcurrentHashMap<>();
+
+    /*
+     * Lo leido por el refresco, aparte de versiones: en el nodo que escribe, versiones avanza en
+     * el commit, pero sus caches pueden volver a llenarse desde una replica atrasada hasta que el
+     * refresco ve la version nueva.
+     */
+    private final Map<String, Long> refrescadas = new ConcurrentHashMap<>();
+
+    // se vacia con cualquier cambio de examenes o preguntas, de este nodo o visto por el refresco
+    private final Map<Long, Long> versionesDeExamenes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void cargar() {
+        refrescar();
+    }
+
+    /**
+     * Debe llamarse dentro de la transaccion de la escritura, para que la version solo cambie si
+     * la escritura se confirma.
+     */
+    public void incrementar(String... agregados) {
+        List<String> incrementados = Arrays.asList(agregados);
+        versionDeCatalogoRepository.incrementar(incrementados);
+        // la fila queda bloqueada hasta el commit, asi que lo leido aqui es exactamente la version nueva
+        List<Object[]> leidas = versionDeCatalogoRepository.leerVersiones();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                actualizar(leidas);
+                if (incrementados.contains(EXAMENES) || incrementados.contains(PREGUNTAS)) {
+                    versionesDeExamenes.clear();
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.http.versiones.refresco-ms:5000}")
+    public void refrescar() {
+        List<Object[]> leidas = versionDeCatalogoRepository.leerVersiones();
+        boolean cambiaronLosExamenes = false;
+        for (Object[] fila : leidas) {
+            String agregado = (String) fila[0];
+            long version = ((Number) fila[1]).longValue();
+            Long anterior = refrescadas.get(agregado);
+            if (anterior == null || version > anterior) {
+                refrescadas.put(agregado, version);
+                cambiaronLosExamenes |= anterior != null && (EXAMENES.equals(agregado) || PREGUNTAS.equals(agregado));
+            }
+        }
+        actualizar(leidas);
+        if (cambiaronLosExamenes) {
+            versionesDeExamenes.clear();
+            vaciarCachesDeExamenes();
+        }
+    }
+
+    private void vaciarCachesDeExamenes() {
+        if (cacheManager == null) {
+            return;
+        }
+        for (String nombre : CACHES_DE_EXAMENES) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // solo avanza: una replica atrasada no puede devolver un ETag que ya se entrego
+    private void actualizar(List<Object[]> leidas) {
+        for (Object[] fila : leidas) {
+            versiones.merge((String) fila[0], ((Number) fila[1]).longValue(), Math::max);
+        }
+    }
+
+    public long version(String agregado) {
+        return versiones.getOrDefault(agregado, 0L);
+    }
+
+    public String etag(String agregado) {
+        return etag(agregado, version(agregado));
+    }
+
+    // null si este nodo todavia no la leyo o la descarto por un cambio
+    public String etagDeExamen(Long examenId) {
+        Long version = versionesDeExamenes.get(examenId);
+        return version == null ? null : etag(nombreDeExamen(examenId), version);
+    }
+
+    /**
+     * Ejecuta la lectura en una transaccion readOnly que empieza leyendo la version del agregado,
+     * y le pasa el ETag de esa version: el cuerpo sale de la misma base (primaria o replica) y,
+     * como la version se lee antes, el ETag nunca es mas nuevo que el cuerpo.
+     */
+    public <R> R conVersion(String agregado, Function<String, R> lectura) {
+        return enLectura().execute(estado -> lectura.apply(etag(agregado, versionDeCatalogoRepository.leerVersion(agregado))));
+    }
+
+    // igual que conVersion, con la version del examen; la de uno que no existe es 0
+    public <R> R conVersionDeExamen(Long examenId, Function<String, R> lectura) {
+        return enLectura().execute(estado -> {
+            Long version = examenRepository.leerVersion(examenId).orElse(null);
+            if (version != null) {
+                versionesDeExamenes.put(examenId, version);
+            }
+            return lectura.apply(etag(nombreDeExamen(examenId), version == null ? 0 : version));
+        });
+    }
+
+    private TransactionTemplate enLectura() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        return transaccion;
+    }
+
+    private static String nombreDeExamen(Long examenId) {
+        return "examen-" + examenId;
+    }
+
+    private static String etag(String nombre, long version) {
+        return "W/\"" + nombre + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,39 @@
+package com.sistema.examenes.controladores;
+
+import com.sistema.examenes.excepciones.ExamenArchivadoNotFoundException;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.ExamenArchivado;
+import com.sistema.examenes.servicios.ArchivoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/archivo")
+@CrossOrigin("*")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class ArchivoController {
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @GetMapping("/examenes")
+    public ResponseEntity<List<ExamenArchivado>> listarExamenesArchivados(){
+        return ResponseEntity.ok(archivoService.obtenerExamenesArchivados());
+    }
+
+    @PostMapping("/examenes")
+    public ResponseEntity<Map<String,Integer>> archivarExamenesInactivos(){
+        return ResponseEntity.ok(Collections.singletonMap("archivados",archivoService.archivarExamenesInactivos()));
+    }
+
+    @PostMapping("/examenes/{examenId}/restaurar")
+    public ResponseEntity<Examen> restaurarExamen(@PathVariable("examenId") Long examenId) throws ExamenArchivadoNotFoundException {
+        return ResponseEntity.ok(archivoService.restaurarExamen(examenId));
+    }
+}
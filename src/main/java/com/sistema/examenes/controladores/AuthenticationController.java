@@ -1,13 +1,21 @@
 package com.sistema.examenes.controladores;
 
 import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.configuraciones.RegistroMuestreado;
+import com.sistema.examenes.eventos.EventoInicioDeSesion;
+import com.sistema.examenes.excepciones.RefreshTokenInvalidoException;
 import com.sistema.examenes.excepciones.UsuarioNotFoundException;
 import com.sistema.examenes.modelo.JwtRequest;
 import com.sistema.examenes.modelo.JwtResponse;
+import com.sistema.examenes.modelo.RefreshTokenRequest;
 import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.servicios.RefreshTokenService;
+import com.sistema.examenes.servicios.RevocacionTokenService;
 import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -16,11 +24,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @CrossOrigin("*")
 public class AuthenticationController {
 
+    private static final RegistroMuestreado fallos = new RegistroMuestreado(LoggerFactory.getLogger(AuthenticationController.class), 10, TimeUnit.SECONDS);
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -30,18 +41,35 @@ public class AuthenticationController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RevocacionTokenService revocacionTokenService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @PostMapping("/generate-token")
     public ResponseEntity<?> generarToken(@RequestBody JwtRequest jwtRequest) throws Exception {
+        EventoInicioDeSesion evento = new EventoInicioDeSesion();
+        evento.begin();
+        evento.username = jwtRequest.getUsername();
         try{
             autenticar(jwtRequest.getUsername(),jwtRequest.getPassword());
+            evento.exitoso = true;
         }catch (UsuarioNotFoundException exception){
-            exception.printStackTrace();
             throw new Exception("Usuario no encontrado");
+        }finally {
+            evento.commit();
         }
 
         UserDetails userDetails =  this.userDetailsService.loadUserByUsername(jwtRequest.getUsername());
         String token = this.jwtUtils.generateToken(userDetails);
-        return ResponseEntity.ok(new JwtResponse(token));
+        String refreshToken = this.refreshTokenService.crearRefreshToken((Usuario) userDetails);
+        return ResponseEntity.ok(new JwtResponse(token,refreshToken));
+    }
+
+    @PostMapping("/refresh-token")
+    public ResponseEntity<JwtResponse> renovarToken(@RequestBody RefreshTokenRequest refreshTokenRequest) throws RefreshTokenInvalidoException {
+        return ResponseEntity.ok(refreshTokenService.rotarRefreshToken(refreshTokenRequest.getRefreshToken()));
     }
 
     private void autenticar(String username,String password) throws Exception {
@@ -50,6 +78,7 @@ public class AuthenticationController {
         }catch (DisabledException exception){
             throw  new Exception("USUARIO DESHABILITADO " + exception.getMessage());
         }catch (BadCredentialsException e){
+            fallos.advertir("credenciales", "Inicio de sesion fallido: username={}", username);
             throw  new Exception("Credenciales invalidas " + e.getMessage());
         }
     }
@@ -58,4 +87,21 @@ public class AuthenticationController {
     public Usuario obtenerUsuarioActual(Principal principal){
         return (Usuario) this.userDetailsService.loadUserByUsername(principal.getName());
     }
+
+    @PostMapping("/cerrar-sesion")
+    public ResponseEntity<?> cerrarSesion(@RequestHeader("Authorization") String authorization,
+                                          @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest){
+        revocacionTokenService.revocarToken(jwtUtils.extractAllClaims(authorization.substring(7)));
+        if(refreshTokenRequest != null && refreshTokenRequest.getRefreshToken() != null){
+            refreshTokenService.revocarRefreshToken(refreshTokenRequest.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revocar-tokens/{username}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> revocarTokensDelUsuario(@PathVariable("username") String username){
+        revocacionTokenService.revocarTokensDelUsuario(username);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,10 +1,13 @@
 package com.sistema.examenes.controladores;
 
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.servicios.CategoriaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/categoria")
@@ -14,6 +17,12 @@ public class CategoriaController {
     @Autowired
     private CategoriaService categoriaService;
 
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
+    @Value("${examenes.http.cache.categorias-max-age:0}")
+    private long maxAgeCategorias;
+
     @PostMapping("/")
     public ResponseEntity<Categoria> guardarCategoria(@RequestBody Categoria categoria){
         Categoria categoriaGuardada = categoriaService.agregarCategoria(categoria);
@@ -26,8 +35,10 @@ public class CategoriaController {
     }
 
     @GetMapping("/")
-    public ResponseEntity<?> listarCategorias(){
-        return ResponseEntity.ok(categoriaService.obtenerCategorias());
+    public ResponseEntity<?> listarCategorias(WebRequest request){
+        return RespuestaCondicional.responder(request, versionesDeCatalogo.etag(VersionesDeCatalogo.CATEGORIAS),
+                lectura -> versionesDeCatalogo.conVersion(VersionesDeCatalogo.CATEGORIAS, lectura),
+                RespuestaCondicional.politica(maxAgeCategorias), categoriaService::obtenerCategorias);
     }
 
     @PutMapping("/")
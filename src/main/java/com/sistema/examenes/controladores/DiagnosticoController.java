@@ -0,0 +1,41 @@
+package com.sistema.examenes.controladores;
+
+import com.sistema.examenes.configuraciones.GrabacionContinua;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/diagnostico")
+@CrossOrigin("*")
+public class DiagnosticoController {
+
+    @Autowired
+    private GrabacionContinua grabacionContinua;
+
+    @PostMapping("/jfr")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> volcarGrabacion() throws IOException {
+        Path archivo = grabacionContinua.volcar();
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                Files.copy(archivo, salida);
+            } finally {
+                Files.deleteIfExists(archivo);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo.getFileName() + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(archivo))
+                .body(cuerpo);
+    }
+}
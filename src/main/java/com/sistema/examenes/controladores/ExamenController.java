@@ -1,11 +1,16 @@
 package com.sistema.examenes.controladores;
 
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.servicios.ExamenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.validation.Valid;
 
 import java.util.List;
 
@@ -17,13 +22,19 @@ public class ExamenController {
     @Autowired
     private ExamenService examenService;
 
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
+    @Value("${examenes.http.cache.examenes-max-age:0}")
+    private long maxAgeExamenes;
+
     @PostMapping("/")
-    public ResponseEntity<Examen> guardarExamen(@RequestBody Examen examen){
+    public ResponseEntity<Examen> guardarExamen(@Valid @RequestBody Examen examen){
         return ResponseEntity.ok(examenService.agregarExamen(examen));
     }
 
     @PutMapping("/")
-    public ResponseEntity<Examen> actualizarExamen(@RequestBody Examen examen){
+    public ResponseEntity<Examen> actualizarExamen(@Valid @RequestBody Examen examen){
         return ResponseEntity.ok(examenService.actualizarExamen(examen));
     }
 
@@ -33,8 +44,10 @@ public class ExamenController {
     }
 
     @GetMapping("/{examenId}")
-    public Examen listarExamen(@PathVariable("examenId") Long examenId){
-        return examenService.obtenerExamen(examenId);
+    public ResponseEntity<Examen> listarExamen(@PathVariable("examenId") Long examenId, WebRequest request){
+        return RespuestaCondicional.responder(request, versionesDeCatalogo.etagDeExamen(examenId),
+                lectura -> versionesDeCatalogo.conVersionDeExamen(examenId, lectura),
+                RespuestaCondicional.politica(maxAgeExamenes), () -> examenService.obtenerExamen(examenId));
     }
 
     @DeleteMapping("/{examenId}")
@@ -50,8 +63,10 @@ public class ExamenController {
     }
 
     @GetMapping("/activo")
-    public List<Examen> listarExamenesActivos(){
-        return examenService.obtenerExamenesActivos();
+    public ResponseEntity<List<Examen>> listarExamenesActivos(WebRequest request){
+        return RespuestaCondicional.responder(request, versionesDeCatalogo.etag(VersionesDeCatalogo.EXAMENES),
+                lectura -> versionesDeCatalogo.conVersion(VersionesDeCatalogo.EXAMENES, lectura),
+                RespuestaCondicional.politica(maxAgeExamenes), examenService::obtenerExamenesActivos);
     }
 
     @GetMapping("/categoria/activo/{categoriaId}")
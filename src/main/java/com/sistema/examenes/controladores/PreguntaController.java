@@ -1,12 +1,22 @@
 package com.sistema.examenes.controladores;
 
+import com.sistema.examenes.configuraciones.FormatosDeRespuestaConfig;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
+import com.sistema.examenes.eventos.EventoCalificacion;
+import com.sistema.examenes.eventos.EventoEntregaDeExamen;
+import com.sistema.examenes.excepciones.EntregaInvalidaException;
+import com.sistema.examenes.modelo.Entrega;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.modelo.Pregunta;
-import com.sistema.examenes.servicios.ExamenService;
 import com.sistema.examenes.servicios.PreguntaService;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 
@@ -15,11 +25,17 @@ import java.util.*;
 @CrossOrigin("*")
 public class PreguntaController {
 
+    private static final Timer TIEMPO_DE_MUESTREO = Metrics.timer("examenes.examen.muestreo");
+    private static final Timer TIEMPO_DE_CALIFICACION = Metrics.timer("examenes.examen.calificacion");
+
     @Autowired
     private PreguntaService preguntaService;
 
     @Autowired
-    private ExamenService examenService;
+    private VersionesDeCatalogo versionesDeCatalogo;
+
+    @Value("${examenes.http.cache.preguntas-max-age:0}")
+    private long maxAgePreguntas;
 
     @PostMapping("/")
     public ResponseEntity<Pregunta> guardarPregunta(@RequestBody Pregunta pregunta){
@@ -31,18 +47,21 @@ public class PreguntaController {
         return ResponseEntity.ok(preguntaService.actualizarPregunta(pregunta));
     }
 
-    @GetMapping("/examen/{examenId}")
+    // el cliente movil puede pedir CBOR o Smile en lugar de JSON
+    @GetMapping(value = "/examen/{examenId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, FormatosDeRespuestaConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<?> listarPreguntasDelExamen(@PathVariable("examenId") Long examenId){
-        Examen examen = examenService.obtenerExamen(examenId);
-        Set<Pregunta> preguntas = examen.getPreguntas();
-
-        List examenes = new ArrayList(preguntas);
-        if(examenes.size() > Integer.parseInt(examen.getNumeroDePreguntas())){
-            examenes = examenes.subList(0,Integer.parseInt(examen.getNumeroDePreguntas() + 1));
+        Timer.Sample muestra = Timer.start(Metrics.globalRegistry);
+        EventoEntregaDeExamen evento = new EventoEntregaDeExamen();
+        evento.begin();
+        try {
+            List<Pregunta> preguntas = preguntaService.obtenerPreguntasParaRendir(examenId);
+            evento.preguntas = preguntas.size();
+            return ResponseEntity.ok(preguntas);
+        } finally {
+            muestra.stop(TIEMPO_DE_MUESTREO);
+            evento.examenId = examenId;
+            evento.commit();
         }
-
-        Collections.shuffle(examenes);
-        return ResponseEntity.ok(examenes);
     }
 
     @GetMapping("/{preguntaId}")
@@ -56,35 +75,52 @@ public class PreguntaController {
     }
 
     @GetMapping("/examen/todos/{examenId}")
-    public ResponseEntity<?> listarPreguntaDelExamenComoAdministrador(@PathVariable("examenId") Long examenId){
+    public ResponseEntity<?> listarPreguntaDelExamenComoAdministrador(@PathVariable("examenId") Long examenId, WebRequest request){
         Examen examen = new Examen();
         examen.setExamenId(examenId);
-        Set<Pregunta> preguntas = preguntaService.obtenerPreguntasDelExamen(examen);
-        return ResponseEntity.ok(preguntas);
+        return RespuestaCondicional.responder(request, versionesDeCatalogo.etagDeExamen(examenId),
+                lectura -> versionesDeCatalogo.conVersionDeExamen(examenId, lectura),
+                RespuestaCondicional.politica(maxAgePreguntas), () -> preguntaService.obtenerPreguntasDelExamen(examen));
     }
 
-    @PostMapping("/evaluar-examen")
+    @PostMapping(value = "/evaluar-examen",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, FormatosDeRespuestaConfig.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, FormatosDeRespuestaConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<?> evaluarExamen(@RequestBody List<Pregunta> preguntas){
-        double puntosMaximos = 0;
-        Integer respuestasCorrectas = 0;
-        Integer intentos = 0;
-
-        for(Pregunta p : preguntas){
-            Pregunta pregunta = this.preguntaService.listarPregunta(p.getPreguntaId());
-            if(pregunta.getRespuesta().equals(p.getRespuestaDada())){
-                respuestasCorrectas ++;
-                double puntos = Double.parseDouble(preguntas.get(0).getExamen().getPuntosMaximos())/preguntas.size();
-                puntosMaximos += puntos;
-            }
-            if(p.getRespuestaDada() != null){
-                intentos ++;
+        Timer.Sample muestra = Timer.start(Metrics.globalRegistry);
+        EventoCalificacion evento = new EventoCalificacion();
+        evento.begin();
+        try {
+            Map<String,Object> respuestas = preguntaService.evaluarExamen(preguntas);
+            evento.respuestasCorrectas = (Integer) respuestas.get("respuestasCorrectas");
+            return ResponseEntity.ok(respuestas);
+        } finally {
+            muestra.stop(TIEMPO_DE_CALIFICACION);
+            if(!preguntas.isEmpty() && preguntas.get(0).getExamen() != null && preguntas.get(0).getExamen().getExamenId() != null){
+                evento.examenId = preguntas.get(0).getExamen().getExamenId();
             }
+            evento.preguntas = preguntas.size();
+            evento.commit();
         }
+    }
 
-        Map<String,Object> respuestas = new HashMap<>();
-        respuestas.put("puntosMaximos",puntosMaximos);
-        respuestas.put("respuestasCorrectas",respuestasCorrectas);
-        respuestas.put("intentos",intentos);
-        return ResponseEntity.ok(respuestas);
+    // igual que /evaluar-examen, pero con la entrega compacta y los puntos del examen guardado
+    @PostMapping(value = "/evaluar-entrega",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, FormatosDeRespuestaConfig.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, FormatosDeRespuestaConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> evaluarEntrega(@RequestBody Entrega entrega) throws EntregaInvalidaException {
+        Timer.Sample muestra = Timer.start(Metrics.globalRegistry);
+        EventoCalificacion evento = new EventoCalificacion();
+        evento.begin();
+        try {
+            Map<String,Object> respuestas = preguntaService.evaluarEntrega(entrega);
+            evento.respuestasCorrectas = (Integer) respuestas.get("respuestasCorrectas");
+            return ResponseEntity.ok(respuestas);
+        } finally {
+            muestra.stop(TIEMPO_DE_CALIFICACION);
+            evento.examenId = entrega.getExamenId() == null ? 0 : entrega.getExamenId();
+            evento.preguntas = entrega.getPreguntaIds() == null ? 0 : entrega.getPreguntaIds().length;
+            evento.commit();
+        }
     }
 }
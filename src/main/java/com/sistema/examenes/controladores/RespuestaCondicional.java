@@ -0,0 +1,77 @@
+package com.sistema.examenes.controladores;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional sobre la version de un agregado del catalogo o de un examen: si el
+ * If-None-Match coincide con el ETag que el nodo ya conoce se responde 304 sin llamar al
+ * servicio, es decir, sin tocar la base. Si no, el ETag de la respuesta sale de la version leida
+ * en la misma transaccion que el cuerpo, nunca de la memoria del nodo, que puede ir por delante
+ * de la replica que sirve el cuerpo.
+ */
+final class RespuestaCondicional {
+
+    private RespuestaCondicional() {
+    }
+
+    // las respuestas dependen del usuario autenticado, asi que nunca van a caches compartidas
+    static CacheControl politica(long maxAgeSegundos) {
+        if (maxAgeSegundos <= 0) {
+            return CacheControl.noCache().cachePrivate();
+        }
+        return CacheControl.maxAge(maxAgeSegundos, TimeUnit.SECONDS).cachePrivate();
+    }
+
+    /**
+     * etagConocido puede ser null; enTransaccion abre la transaccion de lectura (VersionesDeCatalogo.conVersion
+     * o conVersionDeExamen) y le pasa a la respuesta el ETag de la version leida.
+     */
+    static <T> ResponseEntity<T> responder(WebRequest request, String etagConocido,
+                                           Function<Function<String, ResponseEntity<T>>, ResponseEntity<T>> enTransaccion,
+                                           CacheControl cacheControl, Supplier<T> cuerpo) {
+        if (etagConocido != null && vigente(request, etagConocido)) {
+            return noModificado(etagConocido, cacheControl);
+        }
+        return enTransaccion.apply(etag -> {
+            // sin ETag en memoria la version recien leida todavia puede ahorrar la consulta del cuerpo
+            if (etagConocido == null && vigente(request, etag)) {
+                return noModificado(etag, cacheControl);
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(cuerpo.get());
+        });
+    }
+
+    private static <T> ResponseEntity<T> noModificado(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    // comparacion debil de RFC 7232: W/"x" y "x" coinciden; el encabezado puede traer una lista
+    private static boolean vigente(WebRequest request, String etag) {
+        String[] encabezados = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (encabezados == null) {
+            return false;
+        }
+        String buscado = sinPrefijoDebil(etag);
+        for (String encabezado : encabezados) {
+            for (String candidato : encabezado.split(",")) {
+                String valor = candidato.trim();
+                if (valor.equals("*") || sinPrefijoDebil(valor).equals(buscado)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String sinPrefijoDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -1,14 +1,29 @@
 package com.sistema.examenes.controladores;
 
-import com.sistema.examenes.modelo.Rol;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.configuraciones.RegistroDeRoles;
+import com.sistema.examenes.modelo.ResultadoImportacion;
 import com.sistema.examenes.modelo.Usuario;
 import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.servicios.ImportacionService;
 import com.sistema.examenes.servicios.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 @RestController
@@ -22,6 +37,15 @@ public class UsuarioController {
     @Autowired
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RegistroDeRoles registroDeRoles;
+
     @PostMapping("/")
     public Usuario guardarUsuario(@RequestBody Usuario usuario) throws Exception{
         usuario.setPerfil("default.png");
@@ -30,18 +54,45 @@ public class UsuarioController {
 
         Set<UsuarioRol> usuarioRoles = new HashSet<>();
 
-        Rol rol = new Rol();
-        rol.setRolId(2L);
-        rol.setRolNombre("NORMAL");
-
         UsuarioRol usuarioRol = new UsuarioRol();
         usuarioRol.setUsuario(usuario);
-        usuarioRol.setRol(rol);
+        usuarioRol.setRol(registroDeRoles.rol(RegistroDeRoles.NORMAL));
 
         usuarioRoles.add(usuarioRol);
         return usuarioService.guardarUsuario(usuario,usuarioRoles);
     }
 
+    /**
+     * Alta masiva desde CSV. La respuesta es NDJSON: una linea con el avance despues de cada
+     * lote y al final el resultado completo con los errores por fila.
+     */
+    @PostMapping(value = "/importacion", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void importarUsuarios(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        PrintWriter salida = response.getWriter();
+        Reader csv = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+
+        ResultadoImportacion resultado = importacionService.importarUsuarios(csv, avance -> {
+            Map<String,Integer> linea = new LinkedHashMap<>();
+            linea.put("leidos",avance.getLeidos());
+            linea.put("guardados",avance.getGuardados());
+            linea.put("errores",avance.getErrores().size());
+            escribirLinea(salida,linea);
+        });
+        escribirLinea(salida,resultado);
+    }
+
+    private void escribirLinea(PrintWriter salida, Object valor) {
+        try {
+            salida.write(objectMapper.writeValueAsString(valor));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+        salida.write('\n');
+        salida.flush();
+    }
 
     @GetMapping("/{username}")
     public Usuario obtenerUsuario(@PathVariable("username") String username){
@@ -0,0 +1,25 @@
+package com.sistema.examenes.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sistema.examenes.Calificacion")
+@Label("Calificacion")
+@Description("Evaluacion de las respuestas enviadas por un alumno")
+@Category({"Sistema Examenes", "Examenes"})
+@StackTrace(false)
+public class EventoCalificacion extends Event {
+
+    @Label("Examen")
+    public long examenId;
+
+    @Label("Preguntas")
+    public int preguntas;
+
+    @Label("Respuestas correctas")
+    public int respuestasCorrectas;
+}
@@ -0,0 +1,22 @@
+package com.sistema.examenes.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sistema.examenes.EntregaDeExamen")
+@Label("Entrega de examen")
+@Description("Carga y muestreo de las preguntas que recibe el alumno al iniciar un examen")
+@Category({"Sistema Examenes", "Examenes"})
+@StackTrace(false)
+public class EventoEntregaDeExamen extends Event {
+
+    @Label("Examen")
+    public long examenId;
+
+    @Label("Preguntas entregadas")
+    public int preguntas;
+}
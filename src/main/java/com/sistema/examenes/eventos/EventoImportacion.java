@@ -0,0 +1,25 @@
+package com.sistema.examenes.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sistema.examenes.Importacion")
+@Label("Importacion masiva")
+@Description("Carga masiva de registros")
+@Category({"Sistema Examenes", "Importacion"})
+@StackTrace(false)
+public class EventoImportacion extends Event {
+
+    @Label("Tipo")
+    public String tipo;
+
+    @Label("Registros leidos")
+    public int leidos;
+
+    @Label("Registros guardados")
+    public int guardados;
+}
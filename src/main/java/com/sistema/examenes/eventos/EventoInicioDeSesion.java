@@ -0,0 +1,22 @@
+package com.sistema.examenes.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sistema.examenes.InicioDeSesion")
+@Label("Inicio de sesion")
+@Description("Autenticacion con usuario y password en /generate-token, BCrypt incluido")
+@Category({"Sistema Examenes", "Autenticacion"})
+@StackTrace(false)
+public class EventoInicioDeSesion extends Event {
+
+    @Label("Username")
+    public String username;
+
+    @Label("Exitoso")
+    public boolean exitoso;
+}
@@ -0,0 +1,23 @@
+package com.sistema.examenes.eventos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sistema.examenes.ValidacionDeToken")
+@Label("Validacion de token")
+@Description("Parseo, comprobacion de revocacion y carga del usuario de un JWT en JwtAuthenticationFilter")
+@Category({"Sistema Examenes", "Autenticacion"})
+@StackTrace(false)
+public class EventoValidacionDeToken extends Event {
+
+    @Label("Username")
+    public String username;
+
+    @Label("Resultado")
+    @Description("valido, expirado, invalido o revocado")
+    public String resultado;
+}
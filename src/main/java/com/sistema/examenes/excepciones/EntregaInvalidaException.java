@@ -0,0 +1,16 @@
+package com.sistema.examenes.excepciones;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class EntregaInvalidaException extends Exception{
+
+    public EntregaInvalidaException(){
+        super("La entrega no corresponde al examen , vuelva a intentar !!");
+    }
+
+    public EntregaInvalidaException(String mensaje){
+        super(mensaje);
+    }
+}
@@ -0,0 +1,16 @@
+package com.sistema.examenes.excepciones;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ExamenArchivadoNotFoundException extends Exception{
+
+    public ExamenArchivadoNotFoundException(){
+        super("El examen no se encuentra en el archivo , vuelva a intentar !!");
+    }
+
+    public ExamenArchivadoNotFoundException(String mensaje){
+        super(mensaje);
+    }
+}
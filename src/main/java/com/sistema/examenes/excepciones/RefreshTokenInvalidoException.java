@@ -0,0 +1,16 @@
+package com.sistema.examenes.excepciones;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class RefreshTokenInvalidoException extends Exception{
+
+    public RefreshTokenInvalidoException(){
+        super("El refresh token no es valido o ha expirado , inicie sesion nuevamente !!");
+    }
+
+    public RefreshTokenInvalidoException(String mensaje){
+        super(mensaje);
+    }
+}
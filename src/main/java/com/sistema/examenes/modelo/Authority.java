@@ -2,17 +2,37 @@ package com.sistema.examenes.modelo;
 
 import org.springframework.security.core.GrantedAuthority;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class Authority implements GrantedAuthority {
 
-    private String authority;
+    // hay tan pocos roles que una instancia por nombre alcanza para toda la aplicacion
+    private static final Map<String, Authority> INSTANCIAS = new ConcurrentHashMap<>();
+
+    private final String authority;
 
     public Authority(String authority) {
         this.authority = authority;
     }
 
+    public static Authority de(String nombre) {
+        return INSTANCIAS.computeIfAbsent(nombre, Authority::new);
+    }
+
     @Override
     public String getAuthority() {
         return this.authority;
     }
 
+    @Override
+    public boolean equals(Object otro) {
+        return this == otro || otro instanceof Authority && authority.equals(((Authority) otro).authority);
+    }
+
+    @Override
+    public int hashCode() {
+        return authority.hashCode();
+    }
+
 }
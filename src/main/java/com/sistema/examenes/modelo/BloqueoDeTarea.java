@@ -0,0 +1,49 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+@Entity
+@Table(name = "bloqueos_de_tareas")
+public class BloqueoDeTarea {
+
+    @Id
+    @Column(length = 50)
+    private String nombre;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date bloqueadoHasta;
+
+    @Column(length = 100)
+    private String bloqueadoPor;
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Date getBloqueadoHasta() {
+        return bloqueadoHasta;
+    }
+
+    public void setBloqueadoHasta(Date bloqueadoHasta) {
+        this.bloqueadoHasta = bloqueadoHasta;
+    }
+
+    public String getBloqueadoPor() {
+        return bloqueadoPor;
+    }
+
+    public void setBloqueadoPor(String bloqueadoPor) {
+        this.bloqueadoPor = bloqueadoPor;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sistema.examenes.modelo;
+
+import java.util.List;
+
+/**
+ * Clave de respuestas de un examen, ordenada por pregunta. Ademas del texto de cada respuesta
+ * guarda la opcion correcta con el mismo empaquetado que IntentoEmpaquetado, asi que calificar
+ * un intento es un XOR y un conteo de bits por cada 32 preguntas. Se comparte desde la cache:
+ * no debe modificarse.
+ */
+public class ClaveDeRespuestas {
+
+    public static final int PREGUNTAS_POR_PALABRA = 32;
+
+    // el bit bajo de cada par de bits
+    private static final long BITS_BAJOS = 0x5555555555555555L;
+
+    private final long[] preguntaIds;
+    private final String[] respuestas;
+    private final long[] opciones;
+    // preguntas cuya respuesta coincide con alguna opcion; las demas no suman aunque se respondan
+    private final long[] validas;
+
+    public ClaveDeRespuestas(List<RespuestaCorrecta> ordenadas) {
+        preguntaIds = new long[ordenadas.size()];
+        respuestas = new String[ordenadas.size()];
+        IntentoEmpaquetado correctas = new IntentoEmpaquetado(ordenadas.size());
+        for (int i = 0; i < preguntaIds.length; i++) {
+            RespuestaCorrecta respuestaCorrecta = ordenadas.get(i);
+            preguntaIds[i] = respuestaCorrecta.getPreguntaId();
+            respuestas[i] = respuestaCorrecta.getRespuesta();
+            correctas.responder(i, respuestaCorrecta.getOpcion());
+        }
+        opciones = correctas.getOpciones();
+        validas = correctas.getRespondidas();
+    }
+
+    public int tamano() {
+        return preguntaIds.length;
+    }
+
+    /**
+     * Posicion de la pregunta en la clave, o -1 si no es de este examen.
+     */
+    public int posicion(long preguntaId) {
+        int desde = 0;
+        int hasta = preguntaIds.length - 1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (preguntaIds[medio] < preguntaId) {
+                desde = medio + 1;
+            } else if (preguntaIds[medio] > preguntaId) {
+                hasta = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+
+    public String respuesta(int posicion) {
+        return respuestas[posicion];
+    }
+
+    public int contarCorrectas(IntentoEmpaquetado intento) {
+        long[] elegidas = intento.getOpciones();
+        long[] respondidas = intento.getRespondidas();
+        if (elegidas.length != opciones.length) {
+            throw new IllegalArgumentException("El intento tiene " + elegidas.length + " palabras y la clave " + opciones.length);
+        }
+        int correctas = 0;
+        for (int i = 0; i < opciones.length; i++) {
+            long diferencia = elegidas[i] ^ opciones[i];
+            // un par vale 1 en su bit bajo solo si los dos bits coinciden
+            long iguales = ~(diferencia | diferencia >>> 1) & BITS_BAJOS;
+            correctas += Long.bitCount(iguales & respondidas[i] & validas[i]);
+        }
+        return correctas;
+    }
+}
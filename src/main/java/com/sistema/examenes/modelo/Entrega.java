@@ -0,0 +1,47 @@
+package com.sistema.examenes.modelo;
+
+/**
+ * Entrega compacta de un intento: el examen y dos arreglos paralelos con la pregunta y la opcion
+ * elegida (1 a 4 para opcion1..opcion4, 0 si quedo sin responder). Jackson los lee directo a
+ * arreglos primitivos; en CBOR y Smile las respuestas viajan como binario, un byte por pregunta.
+ */
+public class Entrega {
+
+    private Long examenId;
+    private long[] preguntaIds;
+    private byte[] respuestas;
+
+    public Entrega(){
+
+    }
+
+    public Entrega(Long examenId, long[] preguntaIds, byte[] respuestas) {
+        this.examenId = examenId;
+        this.preguntaIds = preguntaIds;
+        this.respuestas = respuestas;
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public long[] getPreguntaIds() {
+        return preguntaIds;
+    }
+
+    public void setPreguntaIds(long[] preguntaIds) {
+        this.preguntaIds = preguntaIds;
+    }
+
+    public byte[] getRespuestas() {
+        return respuestas;
+    }
+
+    public void setRespuestas(byte[] respuestas) {
+        this.respuestas = respuestas;
+    }
+}
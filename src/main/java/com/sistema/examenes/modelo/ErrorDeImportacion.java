@@ -0,0 +1,41 @@
+package com.sistema.examenes.modelo;
+
+public class ErrorDeImportacion {
+
+    private long linea;
+    private String username;
+    private String motivo;
+
+    public ErrorDeImportacion(long linea, String username, String motivo) {
+        this.linea = linea;
+        this.username = username;
+        this.motivo = motivo;
+    }
+
+    public ErrorDeImportacion() {
+    }
+
+    public long getLinea() {
+        return linea;
+    }
+
+    public void setLinea(long linea) {
+        this.linea = linea;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+}
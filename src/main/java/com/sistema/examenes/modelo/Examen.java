@@ -1,13 +1,20 @@
 package com.sistema.examenes.modelo;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import javax.persistence.*;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "examenes")
+@Table(name = "examenes", indexes = {
+        @Index(name = "ix_examenes_categoria_activo", columnList = "categoria_categoria_id, activo"),
+        @Index(name = "ix_examenes_activo_desactivacion", columnList = "activo, fechaDesactivacion")
+})
 public class Examen {
 
     @Id
@@ -16,10 +23,29 @@ public class Examen {
 
     private String titulo;
     private String descripcion;
-    private String puntosMaximos;
-    private String numeroDePreguntas;
+
+    @Column(nullable = false)
+    @Min(0)
+    @Max(100000)
+    private int puntosMaximos;
+
+    @Column(nullable = false)
+    @Min(1)
+    @Max(10000)
+    private int numeroDePreguntas;
+
     private boolean activo = false;
 
+    // la mantiene ExamenService; marca desde cuando corre la retencion antes de archivar
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Date fechaDesactivacion;
+
+    // la incrementa ExamenRepository con cada escritura del examen o sus preguntas; el merge no la toca
+    @Column(nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     private Categoria categoria;
 
@@ -51,19 +77,19 @@ public class Examen {
         this.descripcion = descripcion;
     }
 
-    public String getPuntosMaximos() {
+    public int getPuntosMaximos() {
         return puntosMaximos;
     }
 
-    public void setPuntosMaximos(String puntosMaximos) {
+    public void setPuntosMaximos(int puntosMaximos) {
         this.puntosMaximos = puntosMaximos;
     }
 
-    public String getNumeroDePreguntas() {
+    public int getNumeroDePreguntas() {
         return numeroDePreguntas;
     }
 
-    public void setNumeroDePreguntas(String numeroDePreguntas) {
+    public void setNumeroDePreguntas(int numeroDePreguntas) {
         this.numeroDePreguntas = numeroDePreguntas;
     }
 
@@ -75,6 +101,18 @@ public class Examen {
         this.activo = activo;
     }
 
+    public Date getFechaDesactivacion() {
+        return fechaDesactivacion;
+    }
+
+    public void setFechaDesactivacion(Date fechaDesactivacion) {
+        this.fechaDesactivacion = fechaDesactivacion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public Categoria getCategoria() {
         return categoria;
     }
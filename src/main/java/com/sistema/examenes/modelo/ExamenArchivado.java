@@ -0,0 +1,105 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Examen movido al archivo por ArchivoService. Conserva el id original y la categoria solo
+ * como valor, sin clave foranea, para que el archivo no pese sobre las tablas calientes.
+ * Sus preguntas quedan en preguntas_archivadas.
+ */
+@Entity
+@Table(name = "examenes_archivados", indexes = {
+        @Index(name = "ix_examenes_archivados_categoria", columnList = "categoria_categoria_id")
+})
+public class ExamenArchivado {
+
+    @Id
+    private Long examenId;
+
+    private String titulo;
+    private String descripcion;
+
+    @Column(nullable = false)
+    private int puntosMaximos;
+
+    @Column(nullable = false)
+    private int numeroDePreguntas;
+
+    @Column(name = "categoria_categoria_id")
+    private Long categoriaId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fechaDesactivacion;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date fechaArchivado;
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public int getPuntosMaximos() {
+        return puntosMaximos;
+    }
+
+    public void setPuntosMaximos(int puntosMaximos) {
+        this.puntosMaximos = puntosMaximos;
+    }
+
+    public int getNumeroDePreguntas() {
+        return numeroDePreguntas;
+    }
+
+    public void setNumeroDePreguntas(int numeroDePreguntas) {
+        this.numeroDePreguntas = numeroDePreguntas;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public Date getFechaDesactivacion() {
+        return fechaDesactivacion;
+    }
+
+    public void setFechaDesactivacion(Date fechaDesactivacion) {
+        this.fechaDesactivacion = fechaDesactivacion;
+    }
+
+    public Date getFechaArchivado() {
+        return fechaArchivado;
+    }
+
+    public void setFechaArchivado(Date fechaArchivado) {
+        this.fechaArchivado = fechaArchivado;
+    }
+
+    public ExamenArchivado() {
+    }
+}
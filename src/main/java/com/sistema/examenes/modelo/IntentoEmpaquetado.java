@@ -0,0 +1,49 @@
+package com.sistema.examenes.modelo;
+
+/**
+ * Respuestas de un intento en el orden de la ClaveDeRespuestas del examen: dos bits por
+ * pregunta con la opcion elegida (0 a 3 para opcion1..opcion4), 32 preguntas por long, y una
+ * mascara con el bit bajo de cada par encendido para las preguntas respondidas.
+ */
+public class IntentoEmpaquetado {
+
+    private final long[] opciones;
+    private final long[] respondidas;
+
+    public IntentoEmpaquetado(int preguntas) {
+        int palabras = (preguntas + ClaveDeRespuestas.PREGUNTAS_POR_PALABRA - 1) / ClaveDeRespuestas.PREGUNTAS_POR_PALABRA;
+        this.opciones = new long[palabras];
+        this.respondidas = new long[palabras];
+    }
+
+    /**
+     * @param posicion posicion de la pregunta en la clave
+     * @param opcion 1 a 4; 0 la deja sin responder
+     */
+    public void responder(int posicion, int opcion) {
+        int palabra = posicion / ClaveDeRespuestas.PREGUNTAS_POR_PALABRA;
+        int desplazamiento = 2 * (posicion % ClaveDeRespuestas.PREGUNTAS_POR_PALABRA);
+        opciones[palabra] &= ~(3L << desplazamiento);
+        respondidas[palabra] &= ~(1L << desplazamiento);
+        if (opcion != 0) {
+            opciones[palabra] |= (long) (opcion - 1) << desplazamiento;
+            respondidas[palabra] |= 1L << desplazamiento;
+        }
+    }
+
+    public int contarRespondidas() {
+        int respondidas = 0;
+        for (long palabra : this.respondidas) {
+            respondidas += Long.bitCount(palabra);
+        }
+        return respondidas;
+    }
+
+    long[] getOpciones() {
+        return opciones;
+    }
+
+    long[] getRespondidas() {
+        return respondidas;
+    }
+}
@@ -3,11 +3,17 @@ package com.sistema.examenes.modelo;
 public class JwtResponse {
 
     private String token;
+    private String refreshToken;
 
     public JwtResponse(String token) {
         this.token = token;
     }
 
+    public JwtResponse(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+
     public JwtResponse() {
     }
 
@@ -18,4 +24,12 @@ public class JwtResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -3,7 +3,7 @@ package com.sistema.examenes.modelo;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "preguntas")
+@Table(name = "preguntas", indexes = @Index(name = "ix_preguntas_examen", columnList = "examen_examen_id"))
 public class Pregunta {
 
     @Id
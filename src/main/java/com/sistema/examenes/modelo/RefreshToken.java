@@ -0,0 +1,99 @@
+package com.sistema.examenes.modelo;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "ux_refresh_tokens_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "ix_refresh_tokens_familia", columnList = "familia"),
+        @Index(name = "ix_refresh_tokens_expiracion", columnList = "expiracion")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long refreshTokenId;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familia;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date expiracion;
+
+    // se copia en cada rotacion: es el inicio de sesion, no la emision de este token
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date inicioDeFamilia;
+
+    private boolean usado = false;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    public Long getRefreshTokenId() {
+        return refreshTokenId;
+    }
+
+    public void setRefreshTokenId(Long refreshTokenId) {
+        this.refreshTokenId = refreshTokenId;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamilia() {
+        return familia;
+    }
+
+    public void setFamilia(String familia) {
+        this.familia = familia;
+    }
+
+    public Date getExpiracion() {
+        return expiracion;
+    }
+
+    public void setExpiracion(Date expiracion) {
+        this.expiracion = expiracion;
+    }
+
+    public Date getInicioDeFamilia() {
+        return inicioDeFamilia;
+    }
+
+    public void setInicioDeFamilia(Date inicioDeFamilia) {
+        this.inicioDeFamilia = inicioDeFamilia;
+    }
+
+    public boolean isUsado() {
+        return usado;
+    }
+
+    public void setUsado(boolean usado) {
+        this.usado = usado;
+    }
+
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(Usuario usuario) {
+        this.usuario = usuario;
+    }
+
+    public RefreshToken() {
+    }
+}
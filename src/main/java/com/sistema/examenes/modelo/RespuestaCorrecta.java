@@ -0,0 +1,27 @@
+package com.sistema.examenes.modelo;
+
+public class RespuestaCorrecta {
+
+    private final Long preguntaId;
+    private final String respuesta;
+    // 1 a 4 segun cual de opcion1..opcion4 es la respuesta, 0 si no coincide con ninguna
+    private final int opcion;
+
+    public RespuestaCorrecta(Long preguntaId, String respuesta, int opcion) {
+        this.preguntaId = preguntaId;
+        this.respuesta = respuesta;
+        this.opcion = opcion;
+    }
+
+    public Long getPreguntaId() {
+        return preguntaId;
+    }
+
+    public String getRespuesta() {
+        return respuesta;
+    }
+
+    public int getOpcion() {
+        return opcion;
+    }
+}
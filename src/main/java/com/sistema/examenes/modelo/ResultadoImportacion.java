@@ -0,0 +1,38 @@
+package com.sistema.examenes.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoImportacion {
+
+    private int leidos;
+    private int guardados;
+    private List<ErrorDeImportacion> errores = new ArrayList<>();
+
+    public ResultadoImportacion() {
+    }
+
+    public int getLeidos() {
+        return leidos;
+    }
+
+    public void setLeidos(int leidos) {
+        this.leidos = leidos;
+    }
+
+    public int getGuardados() {
+        return guardados;
+    }
+
+    public void setGuardados(int guardados) {
+        this.guardados = guardados;
+    }
+
+    public List<ErrorDeImportacion> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorDeImportacion> errores) {
+        this.errores = errores;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "revocaciones_usuario")
+public class RevocacionDeUsuario {
+
+    @Id
+    private String username;
+
+    private long corteSegundos;
+
+    public RevocacionDeUsuario() {
+    }
+
+    public RevocacionDeUsuario(String username, long corteSegundos) {
+        this.username = username;
+        this.corteSegundos = corteSegundos;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getCorteSegundos() {
+        return corteSegundos;
+    }
+
+    public void setCorteSegundos(long corteSegundos) {
+        this.corteSegundos = corteSegundos;
+    }
+}
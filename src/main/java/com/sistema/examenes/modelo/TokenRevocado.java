@@ -0,0 +1,59 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+@Entity
+@Table(name = "tokens_revocados", indexes = {
+        @Index(name = "ix_tokens_revocados_expiracion", columnList = "expiracion"),
+        @Index(name = "ix_tokens_revocados_creado", columnList = "creado")
+})
+public class TokenRevocado {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date expiracion;
+
+    // lo pone la base al insertar, para que todos los nodos usen el mismo reloj
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Date creado;
+
+    public TokenRevocado() {
+    }
+
+    public TokenRevocado(String jti, Date expiracion) {
+        this.jti = jti;
+        this.expiracion = expiracion;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Date getExpiracion() {
+        return expiracion;
+    }
+
+    public void setExpiracion(Date expiracion) {
+        this.expiracion = expiracion;
+    }
+
+    public Date getCreado() {
+        return creado;
+    }
+}
@@ -5,18 +5,22 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.persistence.*;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = @Index(name = "ux_usuarios_username", columnList = "username", unique = true))
 public class Usuario implements UserDetails {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false)
     private String username;
     private String password;
     private String nombre;
@@ -30,6 +34,10 @@ public class Usuario implements UserDetails {
     @JsonIgnore
     private Set<UsuarioRol> usuarioRoles = new HashSet<>();
 
+    // se calcula en la primera llamada y se descarta con cualquier cambio de usuarioRoles
+    @Transient
+    private Collection<Authority> autoridades;
+
     public Usuario(){
 
     }
@@ -79,10 +87,13 @@ public class Usuario implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Set<Authority> autoridades = new HashSet<>();
-        this.usuarioRoles.forEach(usuarioRol -> {
-            autoridades.add(new Authority(usuarioRol.getRol().getRolNombre()));
-        });
+        if (autoridades == null) {
+            Set<Authority> calculadas = new HashSet<>();
+            this.usuarioRoles.forEach(usuarioRol -> {
+                calculadas.add(Authority.de(usuarioRol.getRol().getRolNombre()));
+            });
+            autoridades = Collections.unmodifiableSet(calculadas);
+        }
         return autoridades;
     }
 
@@ -142,11 +153,66 @@ public class Usuario implements UserDetails {
         this.perfil = perfil;
     }
 
+    // Hibernate usa el campo; por el getter los cambios pasan por RolesDelUsuario
     public Set<UsuarioRol> getUsuarioRoles() {
-        return usuarioRoles;
+        return new RolesDelUsuario();
     }
 
     public void setUsuarioRoles(Set<UsuarioRol> usuarioRoles) {
         this.usuarioRoles = usuarioRoles;
+        this.autoridades = null;
+    }
+
+    private class RolesDelUsuario extends AbstractSet<UsuarioRol> {
+
+        @Override
+        public Iterator<UsuarioRol> iterator() {
+            Iterator<UsuarioRol> iterador = usuarioRoles.iterator();
+            return new Iterator<UsuarioRol>() {
+                @Override
+                public boolean hasNext() {
+                    return iterador.hasNext();
+                }
+
+                @Override
+                public UsuarioRol next() {
+                    return iterador.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterador.remove();
+                    autoridades = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return usuarioRoles.size();
+        }
+
+        @Override
+        public boolean contains(Object usuarioRol) {
+            return usuarioRoles.contains(usuarioRol);
+        }
+
+        @Override
+        public boolean add(UsuarioRol usuarioRol) {
+            autoridades = null;
+            return usuarioRoles.add(usuarioRol);
+        }
+
+        @Override
+        public boolean remove(Object usuarioRol) {
+            autoridades = null;
+            return usuarioRoles.remove(usuarioRol);
+        }
+
+        @Override
+        public void clear() {
+            autoridades = null;
+            usuarioRoles.clear();
+        }
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.sistema.examenes.modelo;
 import javax.persistence.*;
 
 @Entity
+@Table(indexes = @Index(name = "ix_usuario_rol_usuario", columnList = "usuario_id"))
 public class UsuarioRol {
 
     @Id
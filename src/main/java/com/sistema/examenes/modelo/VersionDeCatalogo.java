@@ -0,0 +1,31 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "versiones_catalogo")
+public class VersionDeCatalogo {
+
+    @Id
+    private String agregado;
+
+    private long version;
+
+    public String getAgregado() {
+        return agregado;
+    }
+
+    public void setAgregado(String agregado) {
+        this.agregado = agregado;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.BloqueoDeTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+
+public interface BloqueoDeTareaRepository extends JpaRepository<BloqueoDeTarea,String> {
+
+    // un solo update condicional: de dos nodos que compiten, solo uno ve una fila afectada
+    @Modifying
+    @Query("update BloqueoDeTarea b set b.bloqueadoHasta = :hasta, b.bloqueadoPor = :nodo where b.nombre = :nombre and b.bloqueadoHasta <= :ahora")
+    int tomar(@Param("nombre") String nombre, @Param("nodo") String nodo, @Param("ahora") Date ahora, @Param("hasta") Date hasta);
+
+    @Modifying
+    @Query("update BloqueoDeTarea b set b.bloqueadoHasta = :ahora where b.nombre = :nombre and b.bloqueadoPor = :nodo")
+    int liberar(@Param("nombre") String nombre, @Param("nodo") String nodo, @Param("ahora") Date ahora);
+}
@@ -2,7 +2,13 @@ package com.sistema.examenes.repositorios;
 
 import com.sistema.examenes.modelo.Categoria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CategoriaRepository extends JpaRepository<Categoria,Long> {
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Categoria c where c.categoriaId = :categoriaId")
+    int eliminarPorId(@Param("categoriaId") Long categoriaId);
 }
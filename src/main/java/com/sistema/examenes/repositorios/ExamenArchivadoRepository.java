@@ -0,0 +1,51 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.ExamenArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface ExamenArchivadoRepository extends JpaRepository<ExamenArchivado,Long> {
+
+    List<ExamenArchivado> findAllByOrderByFechaArchivadoDesc();
+
+    @Modifying
+    @Query(value = "insert into examenes_archivados (examen_id, descripcion, numero_de_preguntas, puntos_maximos, titulo, categoria_categoria_id, fecha_desactivacion, version, fecha_archivado) " +
+            "select examen_id, descripcion, numero_de_preguntas, puntos_maximos, titulo, categoria_categoria_id, fecha_desactivacion, version, :fecha from examenes where examen_id in :examenIds", nativeQuery = true)
+    int archivarExamenes(@Param("examenIds") List<Long> examenIds, @Param("fecha") Date fecha);
+
+    @Modifying
+    @Query(value = "insert into preguntas_archivadas (pregunta_id, contenido, imagen, opcion1, opcion2, opcion3, opcion4, respuesta, examen_examen_id) " +
+            "select pregunta_id, contenido, imagen, opcion1, opcion2, opcion3, opcion4, respuesta, examen_examen_id from preguntas where examen_examen_id in :examenIds", nativeQuery = true)
+    int archivarPreguntas(@Param("examenIds") List<Long> examenIds);
+
+    @Modifying
+    @Query(value = "insert into examenes (examen_id, activo, descripcion, numero_de_preguntas, puntos_maximos, titulo, categoria_categoria_id, fecha_desactivacion, version) " +
+            "select examen_id, false, descripcion, numero_de_preguntas, puntos_maximos, titulo, categoria_categoria_id, :fecha, version + 1 from examenes_archivados where examen_id = :examenId", nativeQuery = true)
+    int restaurarExamen(@Param("examenId") Long examenId, @Param("fecha") Date fecha);
+
+    @Modifying
+    @Query(value = "insert into preguntas (pregunta_id, contenido, imagen, opcion1, opcion2, opcion3, opcion4, respuesta, examen_examen_id) " +
+            "select pregunta_id, contenido, imagen, opcion1, opcion2, opcion3, opcion4, respuesta, examen_examen_id from preguntas_archivadas where examen_examen_id = :examenId", nativeQuery = true)
+    int restaurarPreguntas(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from preguntas_archivadas where examen_examen_id = :examenId", nativeQuery = true)
+    int eliminarPreguntasArchivadas(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ExamenArchivado e where e.examenId = :examenId")
+    int eliminarPorId(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from preguntas_archivadas where examen_examen_id in (select examen_id from examenes_archivados where categoria_categoria_id = :categoriaId)", nativeQuery = true)
+    int eliminarPreguntasArchivadasPorCategoria(@Param("categoriaId") Long categoriaId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ExamenArchivado e where e.categoriaId = :categoriaId")
+    int eliminarPorCategoria(@Param("categoriaId") Long categoriaId);
+}
@@ -1,10 +1,20 @@
 package com.sistema.examenes.repositorios;
 
+import com.sistema.examenes.configuraciones.CacheConfig;
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public interface ExamenRepository extends JpaRepository<Examen,Long> {
 
@@ -13,4 +23,41 @@ public interface ExamenRepository extends JpaRepository<Examen,Long> {
     List<Examen> findByActivo(Boolean estado);
 
     List<Examen> findByCategoriaAndActivo(Categoria categoria,Boolean estado);
+
+    @Cacheable(cacheNames = CacheConfig.EXAMENES, unless = "#result == null")
+    @Query("select e from Examen e where e.examenId = :examenId")
+    Optional<Examen> buscarParaRendir(@Param("examenId") Long examenId);
+
+    @Query("select e.version from Examen e where e.examenId = :examenId")
+    Optional<Long> leerVersion(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Examen e set e.version = e.version + 1 where e.examenId = :examenId")
+    int incrementarVersion(@Param("examenId") Long examenId);
+
+    // el examen al que pertenece hoy la pregunta, antes de moverla o borrarla
+    @Modifying(flushAutomatically = true)
+    @Query("update Examen e set e.version = e.version + 1 where e.examenId in (select p.examen.examenId from Pregunta p where p.preguntaId = :preguntaId)")
+    int incrementarVersionPorPregunta(@Param("preguntaId") Long preguntaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Examen e set e.version = e.version + 1 where e.categoria.categoriaId = :categoriaId")
+    int incrementarVersionPorCategoria(@Param("categoriaId") Long categoriaId);
+
+    // bloquea los examenes del lote hasta el commit: nadie los reactiva ni les agrega preguntas a mitad del archivo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.examenId from Examen e where e.activo = false and e.fechaDesactivacion < :limite order by e.examenId")
+    List<Long> buscarInactivosAntesDe(@Param("limite") Date limite, Pageable pagina);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Examen e where e.examenId = :examenId")
+    int eliminarPorId(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Examen e where e.examenId in :examenIds")
+    int eliminarPorIds(@Param("examenIds") List<Long> examenIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Examen e where e.categoria.categoriaId = :categoriaId")
+    int eliminarPorCategoria(@Param("categoriaId") Long categoriaId);
 }
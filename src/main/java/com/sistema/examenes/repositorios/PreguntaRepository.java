@@ -1,13 +1,44 @@
 package com.sistema.examenes.repositorios;
 
+import com.sistema.examenes.configuraciones.CacheConfig;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.RespuestaCorrecta;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Set;
 
 public interface PreguntaRepository extends JpaRepository<Pregunta,Long> {
 
     Set<Pregunta> findByExamen(Examen examen);
 
+    // las entidades quedan compartidas en la cache: quien las use no debe modificarlas
+    @Cacheable(CacheConfig.PREGUNTAS_DEL_EXAMEN)
+    @Query("select p from Pregunta p where p.examen.examenId = :examenId")
+    List<Pregunta> buscarParaRendir(@Param("examenId") Long examenId);
+
+    // ordenadas por pregunta, como las espera ClaveDeRespuestas
+    @Query("select new com.sistema.examenes.modelo.RespuestaCorrecta(p.preguntaId, p.respuesta, " +
+            "case when p.respuesta = p.opcion1 then 1 when p.respuesta = p.opcion2 then 2 " +
+            "when p.respuesta = p.opcion3 then 3 when p.respuesta = p.opcion4 then 4 else 0 end) " +
+            "from Pregunta p where p.examen.examenId = :examenId order by p.preguntaId")
+    List<RespuestaCorrecta> buscarRespuestasCorrectas(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Pregunta p where p.examen.examenId = :examenId")
+    int eliminarPorExamen(@Param("examenId") Long examenId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Pregunta p where p.examen.examenId in :examenIds")
+    int eliminarPorExamenes(@Param("examenIds") List<Long> examenIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Pregunta p where p.examen.examenId in (select e.examenId from Examen e where e.categoria.categoriaId = :categoriaId)")
+    int eliminarPorCategoria(@Param("categoriaId") Long categoriaId);
+
 }
@@ -0,0 +1,32 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken,Long> {
+
+    @Query("select r from RefreshToken r join fetch r.usuario u left join fetch u.usuarioRoles ur left join fetch ur.rol where r.tokenHash = :tokenHash")
+    RefreshToken buscarPorHash(@Param("tokenHash") String tokenHash);
+
+    // 0 filas: otra peticion ya lo uso, aunque todavia no haya confirmado
+    @Modifying
+    @Query("update RefreshToken r set r.usado = true where r.refreshTokenId = :id and r.usado = false")
+    int marcarUsado(@Param("id") Long refreshTokenId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.familia = :familia")
+    int eliminarFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.usuario.id in (select u.id from Usuario u where u.username = :username)")
+    int eliminarPorUsuario(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiracion < :fecha")
+    int eliminarExpiradosAntesDe(@Param("fecha") Date fecha);
+}
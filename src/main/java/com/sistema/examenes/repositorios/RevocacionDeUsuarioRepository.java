@@ -0,0 +1,19 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.RevocacionDeUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RevocacionDeUsuarioRepository extends JpaRepository<RevocacionDeUsuario,String> {
+
+    @Query("select r.username, r.corteSegundos from RevocacionDeUsuario r where r.corteSegundos >= :desde")
+    List<Object[]> leerDesde(@Param("desde") long desdeSegundos);
+
+    @Modifying
+    @Query("delete from RevocacionDeUsuario r where r.corteSegundos < :desde")
+    int eliminarAnterioresA(@Param("desde") long desdeSegundos);
+}
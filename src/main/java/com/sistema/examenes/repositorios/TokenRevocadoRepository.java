@@ -0,0 +1,23 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.TokenRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado,String> {
+
+    @Query("select t.jti, t.expiracion, t.creado from TokenRevocado t where t.expiracion >= :fecha")
+    List<Object[]> leerVigentesDesde(@Param("fecha") Date fecha);
+
+    @Query("select t.jti, t.expiracion, t.creado from TokenRevocado t where t.creado >= :desde")
+    List<Object[]> leerCreadosDesde(@Param("desde") Date desde);
+
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expiracion < :fecha")
+    int eliminarExpiradosAntesDe(@Param("fecha") Date fecha);
+}
@@ -7,4 +7,6 @@ public interface UsuarioRepository extends JpaRepository<Usuario,Long> {
 
     public Usuario findByUsername(String username);
 
+    public boolean existsByUsername(String username);
+
 }
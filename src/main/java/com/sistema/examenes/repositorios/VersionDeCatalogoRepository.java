@@ -0,0 +1,23 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.VersionDeCatalogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface VersionDeCatalogoRepository extends JpaRepository<VersionDeCatalogo,String> {
+
+    @Modifying
+    @Query("update VersionDeCatalogo v set v.version = v.version + 1 where v.agregado in :agregados")
+    int incrementar(@Param("agregados") List<String> agregados);
+
+    @Query("select v.version from VersionDeCatalogo v where v.agregado = :agregado")
+    long leerVersion(@Param("agregado") String agregado);
+
+    // columnas sueltas y no entidades, para no recibir una copia vieja del contexto de persistencia
+    @Query("select v.agregado, v.version from VersionDeCatalogo v")
+    List<Object[]> leerVersiones();
+}
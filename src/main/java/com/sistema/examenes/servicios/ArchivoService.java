@@ -0,0 +1,17 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.excepciones.ExamenArchivadoNotFoundException;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.ExamenArchivado;
+
+import java.util.List;
+
+public interface ArchivoService {
+
+    int archivarExamenesInactivos();
+
+    List<ExamenArchivado> obtenerExamenesArchivados();
+
+    Examen restaurarExamen(Long examenId) throws ExamenArchivadoNotFoundException;
+
+}
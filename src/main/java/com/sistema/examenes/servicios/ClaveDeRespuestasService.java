@@ -0,0 +1,9 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.modelo.ClaveDeRespuestas;
+
+public interface ClaveDeRespuestasService {
+
+    ClaveDeRespuestas obtenerClave(Long examenId);
+
+}
@@ -0,0 +1,17 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.modelo.ResultadoImportacion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+public interface ImportacionService {
+
+    /**
+     * Registra los usuarios de un CSV con encabezado username,password,nombre,apellido,email,telefono.
+     * Despues de cada lote se invoca progreso con el resultado acumulado.
+     */
+    ResultadoImportacion importarUsuarios(Reader csv, Consumer<ResultadoImportacion> progreso) throws IOException;
+
+}
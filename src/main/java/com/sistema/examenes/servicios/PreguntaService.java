@@ -1,8 +1,12 @@
 package com.sistema.examenes.servicios;
 
+import com.sistema.examenes.excepciones.EntregaInvalidaException;
+import com.sistema.examenes.modelo.Entrega;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.modelo.Pregunta;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface PreguntaService {
@@ -17,6 +21,12 @@ public interface PreguntaService {
 
     Set<Pregunta> obtenerPreguntasDelExamen(Examen examen);
 
+    List<Pregunta> obtenerPreguntasParaRendir(Long examenId);
+
+    Map<String,Object> evaluarExamen(List<Pregunta> preguntas);
+
+    Map<String,Object> evaluarEntrega(Entrega entrega) throws EntregaInvalidaException;
+
     void eliminarPregunta(Long preguntaId);
 
     Pregunta listarPregunta(Long preguntaId);
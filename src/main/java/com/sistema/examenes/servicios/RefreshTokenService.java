@@ -0,0 +1,14 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.excepciones.RefreshTokenInvalidoException;
+import com.sistema.examenes.modelo.JwtResponse;
+import com.sistema.examenes.modelo.Usuario;
+
+public interface RefreshTokenService {
+
+    String crearRefreshToken(Usuario usuario);
+
+    JwtResponse rotarRefreshToken(String refreshToken) throws RefreshTokenInvalidoException;
+
+    void revocarRefreshToken(String refreshToken);
+}
@@ -0,0 +1,12 @@
+package com.sistema.examenes.servicios;
+
+import io.jsonwebtoken.Claims;
+
+public interface RevocacionTokenService {
+
+    void revocarToken(Claims claims);
+
+    void revocarTokensDelUsuario(String username);
+
+    boolean estaRevocado(Claims claims);
+}
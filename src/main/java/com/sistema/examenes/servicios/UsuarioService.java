@@ -11,5 +11,7 @@ public interface UsuarioService {
 
     public Usuario obtenerUsuario(String username);
 
+    public boolean existeUsuario(String username);
+
     public void eliminarUsuario(Long usuarioId);
 }
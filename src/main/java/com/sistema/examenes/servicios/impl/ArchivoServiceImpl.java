@@ -0,0 +1,133 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.configuraciones.BloqueoDeTareas;
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
+import com.sistema.examenes.excepciones.ExamenArchivadoNotFoundException;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.ExamenArchivado;
+import com.sistema.examenes.repositorios.ExamenArchivadoRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.ArchivoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mueve a las tablas de archivo los examenes que llevan inactivos mas que la retencion,
+ * junto con sus preguntas, y los devuelve a las tablas calientes cuando se restauran.
+ * Cada lote se archiva en su propia transaccion para no retener bloqueos sobre examenes
+ * y preguntas mientras dura todo el proceso. Los examenes del lote se leen con bloqueo de
+ * escritura, asi que uno que se reactiva mientras tanto espera o deja de cumplir el filtro,
+ * y la pasada corre en un solo nodo del cluster a la vez.
+ */
+@Service
+public class ArchivoServiceImpl implements ArchivoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoServiceImpl.class);
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ExamenArchivadoRepository examenArchivadoRepository;
+
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BloqueoDeTareas bloqueoDeTareas;
+
+    @Value("${examenes.archivo.retencion-dias:180}")
+    private long retencionDias;
+
+    @Value("${examenes.archivo.lote:100}")
+    private int lote;
+
+    @Value("${examenes.archivo.bloqueo-ms:1800000}")
+    private long bloqueoMs;
+
+    @Override
+    @Scheduled(cron = "${examenes.archivo.cron:0 30 3 * * *}")
+    @CacheEvict(cacheNames = {CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, allEntries = true)
+    public int archivarExamenesInactivos() {
+        if (!bloqueoDeTareas.tomar(BloqueoDeTareas.ARCHIVO_DE_EXAMENES, bloqueoMs)) {
+            log.info("El archivo de examenes ya esta corriendo en otro nodo");
+            return 0;
+        }
+        try {
+            return archivarPorLotes();
+        } finally {
+            bloqueoDeTareas.liberar(BloqueoDeTareas.ARCHIVO_DE_EXAMENES);
+        }
+    }
+
+    private int archivarPorLotes() {
+        Date limite = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retencionDias));
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int archivados = 0;
+        int movidos;
+        do {
+            movidos = transaccion.execute(estado -> archivarLote(limite));
+            archivados += movidos;
+        } while (movidos > 0);
+        if (archivados > 0) {
+            log.info("Examenes archivados: cantidad={} inactivosAntesDe={}", archivados, limite);
+        }
+        return archivados;
+    }
+
+    private int archivarLote(Date limite) {
+        List<Long> examenIds = examenRepository.buscarInactivosAntesDe(limite, PageRequest.of(0, lote));
+        if (examenIds.isEmpty()) {
+            return 0;
+        }
+        Date ahora = new Date();
+        examenArchivadoRepository.archivarExamenes(examenIds, ahora);
+        examenArchivadoRepository.archivarPreguntas(examenIds);
+        preguntaRepository.eliminarPorExamenes(examenIds);
+        examenRepository.eliminarPorIds(examenIds);
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.EXAMENES, VersionesDeCatalogo.PREGUNTAS);
+        return examenIds.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExamenArchivado> obtenerExamenesArchivados() {
+        return examenArchivadoRepository.findAllByOrderByFechaArchivadoDesc();
+    }
+
+    // vuelve inactivo y con la retencion reiniciada, para que el administrador decida si lo activa
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, key = "#examenId")
+    public Examen restaurarExamen(Long examenId) throws ExamenArchivadoNotFoundException {
+        if (examenArchivadoRepository.restaurarExamen(examenId, new Date()) == 0) {
+            throw new ExamenArchivadoNotFoundException();
+        }
+        examenArchivadoRepository.restaurarPreguntas(examenId);
+        examenArchivadoRepository.eliminarPreguntasArchivadas(examenId);
+        examenArchivadoRepository.eliminarPorId(examenId);
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.EXAMENES, VersionesDeCatalogo.PREGUNTAS);
+        return examenRepository.findById(examenId).get();
+    }
+}
@@ -1,28 +1,57 @@
 package com.sistema.examenes.servicios.impl;
 
 
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenArchivadoRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
 import com.sistema.examenes.servicios.CategoriaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class CategoriaServiceImpl  implements CategoriaService {
 
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ExamenArchivadoRepository examenArchivadoRepository;
+
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
     @Override
+    @Transactional
     public Categoria agregarCategoria(Categoria categoria) {
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.CATEGORIAS);
         return categoriaRepository.save(categoria);
     }
 
+    // los examenes y preguntas en cache llevan la categoria embebida
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN}, allEntries = true)
     public Categoria actualizarCategoria(Categoria categoria) {
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.CATEGORIAS, VersionesDeCatalogo.EXAMENES, VersionesDeCatalogo.PREGUNTAS);
+        if(categoria.getCategoriaId() != null){
+            examenRepository.incrementarVersionPorCategoria(categoria.getCategoriaId());
+        }
         return categoriaRepository.save(categoria);
     }
 
@@ -36,10 +65,20 @@ public class CategoriaServiceImpl  implements CategoriaService {
         return categoriaRepository.findById(categoriaId).get();
     }
 
+    /**
+     * Borra preguntas, examenes y la categoria con una sentencia por tabla, en orden de
+     * dependencias, sin cargar las entidades para recorrer la cascada. Tambien descarta los
+     * examenes archivados de la categoria, que ya no se podrian restaurar.
+     */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, allEntries = true)
     public void eliminarCategoria(Long categoriaId) {
-        Categoria categoria = new Categoria();
-        categoria.setCategoriaId(categoriaId);
-        categoriaRepository.delete(categoria);
+        examenArchivadoRepository.eliminarPreguntasArchivadasPorCategoria(categoriaId);
+        examenArchivadoRepository.eliminarPorCategoria(categoriaId);
+        preguntaRepository.eliminarPorCategoria(categoriaId);
+        examenRepository.eliminarPorCategoria(categoriaId);
+        categoriaRepository.eliminarPorId(categoriaId);
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.CATEGORIAS, VersionesDeCatalogo.EXAMENES, VersionesDeCatalogo.PREGUNTAS);
     }
 }
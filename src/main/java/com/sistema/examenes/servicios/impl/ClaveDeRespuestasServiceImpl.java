@@ -0,0 +1,23 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.modelo.ClaveDeRespuestas;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.ClaveDeRespuestasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClaveDeRespuestasServiceImpl implements ClaveDeRespuestasService {
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    // la cache guarda la clave ya empaquetada; las escrituras la desalojan junto con las preguntas
+    @Override
+    @Cacheable(CacheConfig.RESPUESTAS_CORRECTAS)
+    public ClaveDeRespuestas obtenerClave(Long examenId) {
+        return new ClaveDeRespuestas(preguntaRepository.buscarRespuestasCorrectas(examenId));
+    }
+}
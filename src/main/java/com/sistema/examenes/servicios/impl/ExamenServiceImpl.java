@@ -1,32 +1,68 @@
 package com.sistema.examenes.servicios.impl;
 
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
 import com.sistema.examenes.servicios.ExamenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class ExamenServiceImpl implements ExamenService {
 
     @Autowired
     private ExamenRepository examenRepository;
 
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
     @Override
+    @Transactional
     public Examen agregarExamen(Examen examen) {
+        examen.setFechaDesactivacion(fechaDesactivacion(examen));
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.EXAMENES);
         return examenRepository.save(examen);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN}, key = "#examen.examenId", condition = "#examen.examenId != null")
     public Examen actualizarExamen(Examen examen) {
+        examen.setFechaDesactivacion(fechaDesactivacion(examen));
+        // las preguntas se sirven con su examen embebido
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.EXAMENES, VersionesDeCatalogo.PREGUNTAS);
+        if(examen.getExamenId() != null){
+            examenRepository.incrementarVersion(examen.getExamenId());
+        }
         return examenRepository.save(examen);
     }
 
+    // la retencion del archivo corre desde que el examen quedo inactivo, no desde su ultima edicion
+    private Date fechaDesactivacion(Examen examen) {
+        if(examen.isActivo()){
+            return null;
+        }
+        Examen guardado = examen.getExamenId() == null ? null : examenRepository.findById(examen.getExamenId()).orElse(null);
+        if(guardado != null && !guardado.isActivo() && guardado.getFechaDesactivacion() != null){
+            return guardado.getFechaDesactivacion();
+        }
+        return new Date();
+    }
+
     @Override
     public Set<Examen> obtenerExamenes() {
         return new LinkedHashSet<>(examenRepository.findAll());
@@ -38,10 +74,12 @@ public class ExamenServiceImpl implements ExamenService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, key = "#examenId")
     public void eliminarExamen(Long examenId) {
-        Examen examen = new Examen();
-        examen.setExamenId(examenId);
-        examenRepository.delete(examen);
+        preguntaRepository.eliminarPorExamen(examenId);
+        examenRepository.eliminarPorId(examenId);
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.EXAMENES, VersionesDeCatalogo.PREGUNTAS);
     }
 
     @Override
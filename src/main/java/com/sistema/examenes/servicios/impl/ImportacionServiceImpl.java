@@ -0,0 +1,255 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.configuraciones.RegistroDeRoles;
+import com.sistema.examenes.eventos.EventoImportacion;
+import com.sistema.examenes.modelo.ErrorDeImportacion;
+import com.sistema.examenes.modelo.ResultadoImportacion;
+import com.sistema.examenes.servicios.ImportacionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de usuarios desde CSV. El archivo se lee por lotes: cada lote resuelve los
+ * usernames repetidos con una sola consulta, reparte BCrypt entre todos los nucleos con un
+ * ForkJoinPool propio y guarda usuarios y roles con sentencias JDBC en batch dentro de una
+ * transaccion. Las filas invalidas se informan con su numero de linea y no detienen la carga.
+ */
+@Service
+public class ImportacionServiceImpl implements ImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionServiceImpl.class);
+
+    private static final String ENCABEZADO = "username,password,nombre,apellido,email,telefono";
+    private static final int COLUMNAS = 6;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${examenes.importacion.lote:500}")
+    private int lote;
+
+    @Value("${examenes.importacion.paralelismo:0}")
+    private int paralelismo;
+
+    // propio y no el comun, para que una importacion no deje sin hilos a los parallel streams de las peticiones
+    private ForkJoinPool hashing;
+
+    @PostConstruct
+    public void inicializar() {
+        hashing = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void detener() {
+        hashing.shutdown();
+    }
+
+    @Override
+    public ResultadoImportacion importarUsuarios(Reader csv, Consumer<ResultadoImportacion> progreso) throws IOException {
+        EventoImportacion evento = new EventoImportacion();
+        evento.begin();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        try {
+            BufferedReader lector = new BufferedReader(csv);
+            String encabezado = lector.readLine();
+            if (encabezado == null || !encabezado.trim().replace(" ", "").equalsIgnoreCase(ENCABEZADO)) {
+                resultado.getErrores().add(new ErrorDeImportacion(1, null, "Se esperaba el encabezado " + ENCABEZADO));
+                return resultado;
+            }
+
+            TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+            Set<String> vistos = new HashSet<>();
+            List<Fila> filas = new ArrayList<>(lote);
+            long numeroDeLinea = 1;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroDeLinea++;
+                if (linea.trim().isEmpty()) {
+                    continue;
+                }
+                resultado.setLeidos(resultado.getLeidos() + 1);
+                Fila fila = leerFila(numeroDeLinea, linea, vistos, resultado);
+                if (fila != null) {
+                    filas.add(fila);
+                }
+                if (filas.size() == lote) {
+                    guardarLote(filas, transaccion, resultado);
+                    filas.clear();
+                    progreso.accept(resultado);
+                }
+            }
+            if (!filas.isEmpty()) {
+                guardarLote(filas, transaccion, resultado);
+            }
+            progreso.accept(resultado);
+            log.info("Importacion de usuarios terminada: leidos={} guardados={} errores={}",
+                    resultado.getLeidos(), resultado.getGuardados(), resultado.getErrores().size());
+            return resultado;
+        } finally {
+            evento.tipo = "usuarios";
+            evento.leidos = resultado.getLeidos();
+            evento.guardados = resultado.getGuardados();
+            evento.commit();
+        }
+    }
+
+    private Fila leerFila(long numeroDeLinea, String linea, Set<String> vistos, ResultadoImportacion resultado) {
+        List<String> campos = separarCampos(linea);
+        if (campos == null || campos.size() != COLUMNAS) {
+            resultado.getErrores().add(new ErrorDeImportacion(numeroDeLinea, null, "Se esperaban " + COLUMNAS + " columnas"));
+            return null;
+        }
+        Fila fila = new Fila(numeroDeLinea, campos);
+        if (fila.username.isEmpty() || fila.password.isEmpty()) {
+            resultado.getErrores().add(new ErrorDeImportacion(numeroDeLinea, fila.username, "El username y el password son obligatorios"));
+            return null;
+        }
+        if (!vistos.add(fila.username)) {
+            resultado.getErrores().add(new ErrorDeImportacion(numeroDeLinea, fila.username, "El username esta repetido en el archivo"));
+            return null;
+        }
+        return fila;
+    }
+
+    private void guardarLote(List<Fila> filas, TransactionTemplate transaccion, ResultadoImportacion resultado) {
+        Set<String> existentes = new HashSet<>(jdbcTemplate.queryForList(
+                "select username from usuarios where username in (:usernames)",
+                Collections.singletonMap("usernames", filas.stream().map(fila -> fila.username).collect(Collectors.toList())),
+                String.class));
+        List<Fila> nuevas = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            if (existentes.contains(fila.username)) {
+                resultado.getErrores().add(new ErrorDeImportacion(fila.linea, fila.username, "El usuario ya esta presente"));
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        codificarPasswords(nuevas);
+
+        SqlParameterSource[] usuarios = new SqlParameterSource[nuevas.size()];
+        for (int i = 0; i < nuevas.size(); i++) {
+            Fila fila = nuevas.get(i);
+            usuarios[i] = new MapSqlParameterSource()
+                    .addValue("username", fila.username)
+                    .addValue("password", fila.password)
+                    .addValue("nombre", fila.nombre)
+                    .addValue("apellido", fila.apellido)
+                    .addValue("email", fila.email)
+                    .addValue("telefono", fila.telefono);
+        }
+        MapSqlParameterSource roles = new MapSqlParameterSource()
+                .addValue("rolId", RegistroDeRoles.NORMAL)
+                .addValue("usernames", nuevas.stream().map(fila -> fila.username).collect(Collectors.toList()));
+        try {
+            transaccion.executeWithoutResult(estado -> {
+                jdbcTemplate.batchUpdate("insert into usuarios (username, password, nombre, apellido, email, telefono, enabled, perfil) " +
+                        "values (:username, :password, :nombre, :apellido, :email, :telefono, true, 'default.png')", usuarios);
+                jdbcTemplate.update("insert into usuario_rol (rol_rol_id, usuario_id) select :rolId, id from usuarios where username in (:usernames)", roles);
+            });
+            resultado.setGuardados(resultado.getGuardados() + nuevas.size());
+        } catch (DataIntegrityViolationException exception) {
+            // otro alta registro alguno de estos usernames despues de la verificacion; el lote entero se revierte
+            for (Fila fila : nuevas) {
+                resultado.getErrores().add(new ErrorDeImportacion(fila.linea, fila.username, "El lote no se guardo por un username registrado en paralelo, vuelva a importar estas filas"));
+            }
+        }
+    }
+
+    private void codificarPasswords(List<Fila> filas) {
+        try {
+            hashing.submit(() -> filas.parallelStream().forEach(fila -> fila.password = bCryptPasswordEncoder.encode(fila.password))).get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    /**
+     * Separa una linea CSV respetando campos entre comillas dobles y comillas escapadas ("").
+     * Devuelve null si una comilla queda sin cerrar.
+     */
+    static List<String> separarCampos(String linea) {
+        List<String> campos = new ArrayList<>(COLUMNAS);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreComillas) {
+            return null;
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+    private static class Fila {
+
+        private final long linea;
+        private final String username;
+        private String password;
+        private final String nombre;
+        private final String apellido;
+        private final String email;
+        private final String telefono;
+
+        Fila(long linea, List<String> campos) {
+            this.linea = linea;
+            this.username = campos.get(0);
+            this.password = campos.get(1);
+            this.nombre = campos.get(2);
+            this.apellido = campos.get(3);
+            this.email = campos.get(4);
+            this.telefono = campos.get(5);
+        }
+    }
+}
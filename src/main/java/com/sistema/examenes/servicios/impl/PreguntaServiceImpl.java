@@ -1,30 +1,68 @@
 package com.sistema.examenes.servicios.impl;
 
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
+import com.sistema.examenes.excepciones.EntregaInvalidaException;
+import com.sistema.examenes.modelo.ClaveDeRespuestas;
+import com.sistema.examenes.modelo.Entrega;
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.IntentoEmpaquetado;
 import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.repositorios.ExamenRepository;
 import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.ClaveDeRespuestasService;
 import com.sistema.examenes.servicios.PreguntaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Set;
+import java.util.*;
 
 @Service
+@Transactional(readOnly = true)
 public class PreguntaServiceImpl implements PreguntaService {
 
     @Autowired
     private PreguntaRepository preguntaRepository;
 
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private ClaveDeRespuestasService claveDeRespuestasService;
+
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, allEntries = true)
     public Pregunta agregarPregunta(Pregunta pregunta) {
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.PREGUNTAS);
+        incrementarVersionDelExamen(pregunta);
         return preguntaRepository.save(pregunta);
     }
 
+    // una pregunta puede cambiar de examen, por eso se descartan los bancos de todos
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, allEntries = true)
     public Pregunta actualizarPregunta(Pregunta pregunta) {
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.PREGUNTAS);
+        if(pregunta.getPreguntaId() != null){
+            examenRepository.incrementarVersionPorPregunta(pregunta.getPreguntaId());
+        }
+        incrementarVersionDelExamen(pregunta);
         return preguntaRepository.save(pregunta);
     }
 
+    private void incrementarVersionDelExamen(Pregunta pregunta) {
+        if(pregunta.getExamen() != null && pregunta.getExamen().getExamenId() != null){
+            examenRepository.incrementarVersion(pregunta.getExamen().getExamenId());
+        }
+    }
+
     @Override
     public Set<Pregunta> obtenerPreguntas() {
         return (Set<Pregunta>) preguntaRepository.findAll();
@@ -41,10 +79,116 @@ public class PreguntaServiceImpl implements PreguntaService {
     }
 
     @Override
+    public List<Pregunta> obtenerPreguntasParaRendir(Long examenId) {
+        Examen examen = examenRepository.buscarParaRendir(examenId).get();
+        List<Pregunta> preguntas = new ArrayList<>(preguntaRepository.buscarParaRendir(examenId));
+        Collections.shuffle(preguntas);
+        int numeroDePreguntas = examen.getNumeroDePreguntas();
+        if(preguntas.size() > numeroDePreguntas){
+            preguntas = preguntas.subList(0,numeroDePreguntas);
+        }
+        return preguntas;
+    }
+
+    /**
+     * Califica el intento completo con la clave de respuestas del examen, que sale de la cache;
+     * solo las preguntas que no estan en esa clave se buscan, todas en una sola consulta. Del
+     * examen que manda el cliente solo se usa el id: los puntos son los guardados.
+     */
+    @Override
+    public Map<String, Object> evaluarExamen(List<Pregunta> preguntas) {
+        Examen enviado = preguntas.isEmpty() ? null : preguntas.get(0).getExamen();
+        Examen examen = enviado == null || enviado.getExamenId() == null ? null : examenRepository.buscarParaRendir(enviado.getExamenId()).orElse(null);
+        ClaveDeRespuestas clave = examen == null ? null : claveDeRespuestasService.obtenerClave(examen.getExamenId());
+        List<Long> faltantes = new ArrayList<>();
+        for(Pregunta p : preguntas){
+            if(p.getPreguntaId() != null && (clave == null || clave.posicion(p.getPreguntaId()) < 0)){
+                faltantes.add(p.getPreguntaId());
+            }
+        }
+        Map<Long, String> respuestasFaltantes = new HashMap<>();
+        if(!faltantes.isEmpty()){
+            for(Pregunta pregunta : preguntaRepository.findAllById(faltantes)){
+                respuestasFaltantes.put(pregunta.getPreguntaId(), pregunta.getRespuesta());
+            }
+        }
+
+        double puntosMaximos = 0;
+        int correctas = 0;
+        int intentos = 0;
+        double puntosPorPregunta = examen == null ? 0 : (double) examen.getPuntosMaximos()/preguntas.size();
+
+        for(Pregunta p : preguntas){
+            int posicion = clave == null || p.getPreguntaId() == null ? -1 : clave.posicion(p.getPreguntaId());
+            String respuesta = posicion >= 0 ? clave.respuesta(posicion) : respuestasFaltantes.get(p.getPreguntaId());
+            if(respuesta != null && respuesta.equals(p.getRespuestaDada())){
+                correctas ++;
+                puntosMaximos += puntosPorPregunta;
+            }
+            if(p.getRespuestaDada() != null){
+                intentos ++;
+            }
+        }
+
+        Map<String,Object> respuestas = new HashMap<>();
+        respuestas.put("puntosMaximos",puntosMaximos);
+        respuestas.put("respuestasCorrectas",correctas);
+        respuestas.put("intentos",intentos);
+        return respuestas;
+    }
+
+    /**
+     * Califica una entrega compacta solo con datos del servidor: los puntos del examen, la clave
+     * de respuestas y cuantas preguntas se sirven por intento. Cada pregunta vale lo mismo sin
+     * importar cuantas mande el cliente, y una pregunta repetida o de otro examen invalida la entrega.
+     */
+    @Override
+    public Map<String, Object> evaluarEntrega(Entrega entrega) throws EntregaInvalidaException {
+        long[] preguntaIds = entrega.getPreguntaIds();
+        byte[] opciones = entrega.getRespuestas();
+        if(entrega.getExamenId() == null || preguntaIds == null || opciones == null || preguntaIds.length != opciones.length){
+            throw new EntregaInvalidaException("La entrega debe indicar el examen y una respuesta por cada pregunta");
+        }
+        Examen examen = examenRepository.buscarParaRendir(entrega.getExamenId())
+                .orElseThrow(() -> new EntregaInvalidaException("El examen " + entrega.getExamenId() + " no existe"));
+        ClaveDeRespuestas clave = claveDeRespuestasService.obtenerClave(examen.getExamenId());
+        int servidas = Math.min(examen.getNumeroDePreguntas(), clave.tamano());
+        if(preguntaIds.length > servidas){
+            throw new EntregaInvalidaException("El examen tiene " + servidas + " preguntas por intento");
+        }
+
+        IntentoEmpaquetado intento = new IntentoEmpaquetado(clave.tamano());
+        BitSet vistas = new BitSet(clave.tamano());
+        for(int i = 0; i < preguntaIds.length; i++){
+            int posicion = clave.posicion(preguntaIds[i]);
+            if(posicion < 0 || vistas.get(posicion)){
+                throw new EntregaInvalidaException("La pregunta " + preguntaIds[i] + " no pertenece al examen o esta repetida");
+            }
+            vistas.set(posicion);
+            if(opciones[i] < 0 || opciones[i] > 4){
+                throw new EntregaInvalidaException("La respuesta de la pregunta " + preguntaIds[i] + " debe ser de 0 a 4");
+            }
+            intento.responder(posicion, opciones[i]);
+        }
+        int correctas = clave.contarCorrectas(intento);
+        int intentos = intento.contarRespondidas();
+
+        Map<String,Object> respuestas = new HashMap<>();
+        respuestas.put("puntosMaximos", servidas == 0 ? 0.0 : (double) examen.getPuntosMaximos() * correctas / servidas);
+        respuestas.put("respuestasCorrectas",correctas);
+        respuestas.put("intentos",intentos);
+        return respuestas;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS}, allEntries = true)
     public void eliminarPregunta(Long preguntaId) {
+        examenRepository.incrementarVersionPorPregunta(preguntaId);
         Pregunta pregunta = new Pregunta();
         pregunta.setPreguntaId(preguntaId);
         preguntaRepository.delete(pregunta);
+        versionesDeCatalogo.incrementar(VersionesDeCatalogo.PREGUNTAS);
     }
 
     @Override
@@ -0,0 +1,141 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.excepciones.RefreshTokenInvalidoException;
+import com.sistema.examenes.modelo.JwtResponse;
+import com.sistema.examenes.modelo.RefreshToken;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.repositorios.RefreshTokenRepository;
+import com.sistema.examenes.repositorios.RevocacionDeUsuarioRepository;
+import com.sistema.examenes.servicios.RefreshTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh tokens opacos y rotativos. En la base solo se guarda el SHA-256 del token,
+ * por lo que renovar cuesta una busqueda por indice unico y nunca pasa por BCrypt.
+ * Cada token se usa una sola vez: si se presenta uno ya usado se asume que fue robado
+ * y se elimina toda su familia, cerrando tambien la sesion del usuario legitimo.
+ * El token se reclama con un update condicional, asi que dos renovaciones simultaneas
+ * con el mismo token no pueden ganar las dos. Una familia que empezo antes de que se
+ * revocaran todos los tokens de su usuario tampoco se rota.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevocacionDeUsuarioRepository revocacionDeUsuarioRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Value("${examenes.jwt.refresh.duracion-ms:1209600000}")
+    private long duracionMs;
+
+    @Override
+    @Transactional
+    public String crearRefreshToken(Usuario usuario) {
+        return emitir(usuario, UUID.randomUUID().toString(), new Date());
+    }
+
+    // la excepcion es checked, asi que la eliminacion de la familia se confirma aunque se lance
+    @Override
+    @Transactional
+    public JwtResponse rotarRefreshToken(String refreshToken) throws RefreshTokenInvalidoException {
+        if (refreshToken == null) {
+            throw new RefreshTokenInvalidoException();
+        }
+        RefreshToken actual = refreshTokenRepository.buscarPorHash(hash(refreshToken));
+        if (actual == null) {
+            throw new RefreshTokenInvalidoException();
+        }
+        if (actual.isUsado()) {
+            throw reutilizado(actual);
+        }
+        Usuario usuario = actual.getUsuario();
+        if (actual.getExpiracion().before(new Date()) || !usuario.isEnabled()) {
+            throw new RefreshTokenInvalidoException();
+        }
+        if (empezoAntesDeLaRevocacion(actual)) {
+            refreshTokenRepository.eliminarFamilia(actual.getFamilia());
+            throw new RefreshTokenInvalidoException();
+        }
+        if (refreshTokenRepository.marcarUsado(actual.getRefreshTokenId()) == 0) {
+            throw reutilizado(actual);
+        }
+
+        String nuevoRefreshToken = emitir(usuario, actual.getFamilia(), actual.getInicioDeFamilia());
+        return new JwtResponse(jwtUtils.generateToken(usuario), nuevoRefreshToken);
+    }
+
+    // misma regla que el iat de los access tokens: el mismo segundo que el corte tambien queda revocado
+    private boolean empezoAntesDeLaRevocacion(RefreshToken actual) {
+        return revocacionDeUsuarioRepository.findById(actual.getUsuario().getUsername())
+                .map(revocacion -> actual.getInicioDeFamilia() == null
+                        || TimeUnit.MILLISECONDS.toSeconds(actual.getInicioDeFamilia().getTime()) <= revocacion.getCorteSegundos())
+                .orElse(false);
+    }
+
+    private RefreshTokenInvalidoException reutilizado(RefreshToken actual) {
+        refreshTokenRepository.eliminarFamilia(actual.getFamilia());
+        return new RefreshTokenInvalidoException("El refresh token ya fue utilizado , se cerraron todas las sesiones asociadas");
+    }
+
+    @Override
+    @Transactional
+    public void revocarRefreshToken(String refreshToken) {
+        RefreshToken actual = refreshTokenRepository.buscarPorHash(hash(refreshToken));
+        if (actual != null) {
+            refreshTokenRepository.eliminarFamilia(actual.getFamilia());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.jwt.refresh.limpieza-ms:3600000}")
+    @Transactional
+    public void eliminarRefreshTokensExpirados() {
+        refreshTokenRepository.eliminarExpiradosAntesDe(new Date());
+    }
+
+    private String emitir(Usuario usuario, String familia, Date inicioDeFamilia) {
+        byte[] aleatorio = new byte[32];
+        secureRandom.nextBytes(aleatorio);
+        String token = BASE64.encodeToString(aleatorio);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamilia(familia);
+        refreshToken.setInicioDeFamilia(inicioDeFamilia);
+        refreshToken.setExpiracion(new Date(System.currentTimeMillis() + duracionMs));
+        refreshToken.setUsuario(usuario);
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return BASE64.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.configuraciones.FiltroBloom;
+import com.sistema.examenes.modelo.RevocacionDeUsuario;
+import com.sistema.examenes.modelo.TokenRevocado;
+import com.sistema.examenes.repositorios.RefreshTokenRepository;
+import com.sistema.examenes.repositorios.RevocacionDeUsuarioRepository;
+import com.sistema.examenes.repositorios.TokenRevocadoRepository;
+import com.sistema.examenes.servicios.RevocacionTokenService;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lista de tokens revocados. Las revocaciones se guardan en tokens_revocados y
+ * revocaciones_usuario; cada nodo las carga al arrancar y refresca las de los demas
+ * periodicamente, y responde siempre desde memoria. El refresco solo lee los tokens
+ * revocados desde el ultimo que vio, asi que su costo depende de las revocaciones nuevas y
+ * no de todas las vigentes. El filtro de Bloom responde sin tocar
+ * el mapa para casi todos los tokens validos; solo ante un posible positivo se consulta el
+ * conjunto exacto. Hay dos generaciones de filtro que rotan cada vez que pasa la
+ * duracion de un token, de modo que una revocacion nunca se olvida antes de que el
+ * token expire y la memoria no crece con el tiempo.
+ */
+@Service
+public class RevocacionTokenServiceImpl implements RevocacionTokenService {
+
+    @Value("${examenes.revocacion.capacidad:1000000}")
+    private long capacidad;
+
+    @Value("${examenes.revocacion.falsos-positivos:0.01}")
+    private double probabilidadFalsoPositivo;
+
+    @Value("${examenes.jwt.duracion-ms:900000}")
+    private long duracionDeToken;
+
+    // una revocacion que confirma tarde puede tener un creado anterior al ultimo leido
+    @Value("${examenes.revocacion.margen-ms:60000}")
+    private long margen;
+
+    @Autowired
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Autowired
+    private RevocacionDeUsuarioRepository revocacionDeUsuarioRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final Map<UUID, Long> revocados = new ConcurrentHashMap<>();
+    // corte en segundos, la misma precision que el iat del token
+    private final Map<String, Long> usuariosRevocados = new ConcurrentHashMap<>();
+
+    private volatile Generaciones generaciones;
+
+    // creado del token revocado mas nuevo que leyo este nodo; null hasta leer alguno
+    private volatile Date ultimaCreacion;
+
+    @PostConstruct
+    public void inicializar() {
+        generaciones = new Generaciones(nuevoFiltro(), nuevoFiltro());
+        refrescar();
+    }
+
+    @Override
+    @Transactional
+    public void revocarToken(Claims claims) {
+        UUID jti = jtiDe(claims);
+        if (jti == null || claims.getExpiration() == null) {
+            return;
+        }
+        tokenRevocadoRepository.save(new TokenRevocado(jti.toString(), claims.getExpiration()));
+        registrarToken(jti, claims.getExpiration().getTime());
+    }
+
+    /**
+     * Tambien elimina sus refresh tokens: si no, renovar emitiria un access token posterior al
+     * corte. RefreshTokenServiceImpl rechaza ademas las familias que empezaron antes del corte.
+     */
+    @Override
+    @Transactional
+    public void revocarTokensDelUsuario(String username) {
+        long corte = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        RevocacionDeUsuario revocacion = revocacionDeUsuarioRepository.findById(username)
+                .orElseGet(() -> new RevocacionDeUsuario(username, corte));
+        revocacion.setCorteSegundos(Math.max(revocacion.getCorteSegundos(), corte));
+        revocacionDeUsuarioRepository.save(revocacion);
+        refreshTokenRepository.eliminarPorUsuario(username);
+        usuariosRevocados.merge(username, revocacion.getCorteSegundos(), Math::max);
+    }
+
+    /**
+     * Un token emitido en el mismo segundo que la revocacion tambien queda revocado: el iat no
+     * permite saber si fue antes o despues, y en la duda se revoca.
+     */
+    @Override
+    public boolean estaRevocado(Claims claims) {
+        if (!usuariosRevocados.isEmpty()) {
+            Long corte = usuariosRevocados.get(claims.getSubject());
+            Date emision = claims.getIssuedAt();
+            if (corte != null && (emision == null || TimeUnit.MILLISECONDS.toSeconds(emision.getTime()) <= corte)) {
+                return true;
+            }
+        }
+
+        UUID jti = jtiDe(claims);
+        if (jti == null) {
+            return false;
+        }
+        Generaciones vigentes = generaciones;
+        long alto = jti.getMostSignificantBits();
+        long bajo = jti.getLeastSignificantBits();
+        if (!vigentes.actual.puedeContener(alto, bajo) && !vigentes.anterior.puedeContener(alto, bajo)) {
+            return false;
+        }
+        return revocados.containsKey(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.jwt.duracion-ms:900000}", initialDelayString = "${examenes.jwt.duracion-ms:900000}")
+    public void rotarFiltros() {
+        generaciones = new Generaciones(nuevoFiltro(), generaciones.actual);
+    }
+
+    /**
+     * Toma las revocaciones hechas en otros nodos. Corre en una transaccion de escritura para
+     * leer de la primaria: una replica atrasada dejaria pasar un token ya revocado. Solo la
+     * primera lectura con filas carga todas las vigentes; despues se leen las creadas desde la
+     * ultima vista, menos el margen, y volver a registrar las del margen no cambia nada.
+     */
+    @Scheduled(fixedDelayString = "${examenes.revocacion.refresco-ms:5000}")
+    @Transactional
+    public void refrescar() {
+        long ahora = System.currentTimeMillis();
+        Date desde = ultimaCreacion;
+        List<Object[]> tokens = desde == null
+                ? tokenRevocadoRepository.leerVigentesDesde(new Date(ahora))
+                : tokenRevocadoRepository.leerCreadosDesde(new Date(desde.getTime() - margen));
+        for (Object[] fila : tokens) {
+            UUID jti = UUID.fromString((String) fila[0]);
+            registrarToken(jti, ((Date) fila[1]).getTime());
+            Date creado = (Date) fila[2];
+            if (desde == null || creado.after(desde)) {
+                desde = creado;
+            }
+        }
+        ultimaCreacion = desde;
+        List<Object[]> usuarios = revocacionDeUsuarioRepository.leerDesde(TimeUnit.MILLISECONDS.toSeconds(ahora - duracionDeToken));
+        for (Object[] fila : usuarios) {
+            usuariosRevocados.merge((String) fila[0], ((Number) fila[1]).longValue(), Math::max);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${examenes.revocacion.limpieza-ms:60000}")
+    @Transactional
+    public void eliminarRevocacionesExpiradas() {
+        long ahora = System.currentTimeMillis();
+        revocados.values().removeIf(expiracion -> expiracion < ahora);
+        // una revocacion por usuario deja de importar cuando expiran los tokens emitidos antes de ella
+        long corteVigente = TimeUnit.MILLISECONDS.toSeconds(ahora - duracionDeToken);
+        usuariosRevocados.values().removeIf(corte -> corte < corteVigente);
+        tokenRevocadoRepository.eliminarExpiradosAntesDe(new Date(ahora));
+        revocacionDeUsuarioRepository.eliminarAnterioresA(corteVigente);
+    }
+
+    private void registrarToken(UUID jti, long expiracion) {
+        revocados.put(jti, expiracion);
+        generaciones.actual.agregar(jti.getMostSignificantBits(), jti.getLeastSignificantBits());
+    }
+
+    private FiltroBloom nuevoFiltro() {
+        return new FiltroBloom(capacidad, probabilidadFalsoPositivo);
+    }
+
+    private static UUID jtiDe(Claims claims) {
+        String id = claims.getId();
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    private static class Generaciones {
+
+        private final FiltroBloom actual;
+        private final FiltroBloom anterior;
+
+        Generaciones(FiltroBloom actual, FiltroBloom anterior) {
+            this.actual = actual;
+            this.anterior = anterior;
+        }
+    }
+}
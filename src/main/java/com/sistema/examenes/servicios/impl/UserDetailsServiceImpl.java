@@ -2,21 +2,27 @@ package com.sistema.examenes.servicios.impl;
 
 import com.sistema.examenes.modelo.Usuario;
 import com.sistema.examenes.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Transactional(readOnly = true)
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    private static final Timer TIEMPO_DE_BUSQUEDA = Metrics.timer("examenes.usuarios.busqueda");
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Usuario usuario = this.usuarioRepository.findByUsername(username);
+        Usuario usuario = TIEMPO_DE_BUSQUEDA.record(() -> this.usuarioRepository.findByUsername(username));
         if(usuario == null){
             throw new UsernameNotFoundException("Usuario no encontrado");
         }
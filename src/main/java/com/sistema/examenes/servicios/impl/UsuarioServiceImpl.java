@@ -3,34 +3,29 @@ package com.sistema.examenes.servicios.impl;
 import com.sistema.examenes.excepciones.UsuarioFoundException;
 import com.sistema.examenes.modelo.Usuario;
 import com.sistema.examenes.modelo.UsuarioRol;
-import com.sistema.examenes.repositorios.RolRepository;
 import com.sistema.examenes.repositorios.UsuarioRepository;
 import com.sistema.examenes.servicios.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class UsuarioServiceImpl implements UsuarioService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    @Autowired
-    private RolRepository rolRepository;
-
     @Override
+    @Transactional
     public Usuario guardarUsuario(Usuario usuario, Set<UsuarioRol> usuarioRoles) throws Exception {
         Usuario usuarioLocal = usuarioRepository.findByUsername(usuario.getUsername());
         if(usuarioLocal != null){
-            System.out.println("El usuario ya existe");
             throw new UsuarioFoundException("El usuario ya esta presente");
         }
         else{
-            for(UsuarioRol usuarioRol:usuarioRoles){
-                rolRepository.save(usuarioRol.getRol());
-            }
             usuario.getUsuarioRoles().addAll(usuarioRoles);
             usuarioLocal = usuarioRepository.save(usuario);
         }
@@ -43,6 +38,12 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    public boolean existeUsuario(String username) {
+        return usuarioRepository.existsByUsername(username);
+    }
+
+    @Override
+    @Transactional
     public void eliminarUsuario(Long usuarioId) {
         usuarioRepository.deleteById(usuarioId);
     }
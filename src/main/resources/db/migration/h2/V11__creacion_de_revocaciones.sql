@@ -0,0 +1,5 @@
+-- Momento de cada revocacion segun el reloj de la base. El refresco periodico de cada nodo lee
+-- solo las filas creadas desde la ultima que vio, en vez de toda la tabla.
+alter table tokens_revocados add column creado timestamp not null default current_timestamp;
+
+create index ix_tokens_revocados_creado on tokens_revocados (creado);
@@ -0,0 +1,77 @@
+-- Equivalente H2 de mysql/V1, para pruebas y el modulo de carga.
+
+create table categorias (
+    categoria_id bigint generated by default as identity,
+    descripcion varchar(255),
+    titulo varchar(255),
+    primary key (categoria_id)
+);
+
+create table examenes (
+    examen_id bigint generated by default as identity,
+    activo boolean not null,
+    descripcion varchar(255),
+    numero_de_preguntas varchar(255),
+    puntos_maximos varchar(255),
+    titulo varchar(255),
+    categoria_categoria_id bigint,
+    primary key (examen_id)
+);
+
+create table preguntas (
+    pregunta_id bigint generated by default as identity,
+    contenido varchar(5000),
+    imagen varchar(255),
+    opcion1 varchar(255),
+    opcion2 varchar(255),
+    opcion3 varchar(255),
+    opcion4 varchar(255),
+    respuesta varchar(255),
+    examen_examen_id bigint,
+    primary key (pregunta_id)
+);
+
+create table roles (
+    rol_id bigint not null,
+    rol_nombre varchar(255),
+    primary key (rol_id)
+);
+
+create table usuarios (
+    id bigint generated by default as identity,
+    apellido varchar(255),
+    email varchar(255),
+    enabled boolean not null,
+    nombre varchar(255),
+    password varchar(255),
+    perfil varchar(255),
+    telefono varchar(255),
+    username varchar(255),
+    primary key (id)
+);
+
+create table usuario_rol (
+    usuario_rol_id bigint generated by default as identity,
+    rol_rol_id bigint,
+    usuario_id bigint,
+    primary key (usuario_rol_id)
+);
+
+create table refresh_tokens (
+    refresh_token_id bigint generated by default as identity,
+    expiracion timestamp not null,
+    familia varchar(36) not null,
+    token_hash varchar(64) not null,
+    usado boolean not null,
+    usuario_id bigint not null,
+    primary key (refresh_token_id)
+);
+
+create index ix_refresh_tokens_familia on refresh_tokens (familia);
+alter table refresh_tokens add constraint ux_refresh_tokens_token_hash unique (token_hash);
+
+alter table examenes add constraint FK9e3vkr595xf5ntcw0ih72lifw foreign key (categoria_categoria_id) references categorias (categoria_id);
+alter table preguntas add constraint FK9g0sx7pv0vsvc4uksis4egp4j foreign key (examen_examen_id) references examenes (examen_id);
+alter table refresh_tokens add constraint FKpdrw1klic7bvvhhkjojwu64t2 foreign key (usuario_id) references usuarios (id) on delete cascade;
+alter table usuario_rol add constraint FK7j1tyvjj1tv8gbq7n6f7efccc foreign key (rol_rol_id) references roles (rol_id);
+alter table usuario_rol add constraint FKktsemf1f6awjww4da0ocv4n32 foreign key (usuario_id) references usuarios (id);
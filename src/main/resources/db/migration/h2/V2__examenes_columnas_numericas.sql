@@ -0,0 +1,5 @@
+update examenes set puntos_maximos = '0' where puntos_maximos is null;
+update examenes set numero_de_preguntas = '1' where numero_de_preguntas is null;
+
+alter table examenes alter column puntos_maximos int not null;
+alter table examenes alter column numero_de_preguntas int not null;
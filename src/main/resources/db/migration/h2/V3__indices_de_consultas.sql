@@ -0,0 +1,12 @@
+alter table usuarios alter column username set not null;
+create unique index ux_usuarios_username on usuarios (username);
+
+create index ix_usuario_rol_usuario on usuario_rol (usuario_id);
+
+create index ix_examenes_categoria_activo on examenes (categoria_categoria_id, activo);
+
+create index ix_examenes_activo on examenes (activo);
+
+create index ix_preguntas_examen on preguntas (examen_examen_id);
+
+create index ix_refresh_tokens_expiracion on refresh_tokens (expiracion);
@@ -0,0 +1,34 @@
+alter table examenes add column fecha_desactivacion timestamp;
+update examenes set fecha_desactivacion = current_timestamp where activo = false;
+
+drop index ix_examenes_activo;
+create index ix_examenes_activo_desactivacion on examenes (activo, fecha_desactivacion);
+
+create table examenes_archivados (
+    examen_id bigint not null,
+    descripcion varchar(255),
+    numero_de_preguntas int not null,
+    puntos_maximos int not null,
+    titulo varchar(255),
+    categoria_categoria_id bigint,
+    fecha_desactivacion timestamp,
+    fecha_archivado timestamp not null,
+    primary key (examen_id)
+);
+
+create index ix_examenes_archivados_categoria on examenes_archivados (categoria_categoria_id);
+
+create table preguntas_archivadas (
+    pregunta_id bigint not null,
+    contenido varchar(5000),
+    imagen varchar(255),
+    opcion1 varchar(255),
+    opcion2 varchar(255),
+    opcion3 varchar(255),
+    opcion4 varchar(255),
+    respuesta varchar(255),
+    examen_examen_id bigint not null,
+    primary key (pregunta_id)
+);
+
+create index ix_preguntas_archivadas_examen on preguntas_archivadas (examen_examen_id);
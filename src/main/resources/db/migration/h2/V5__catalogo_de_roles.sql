@@ -0,0 +1,4 @@
+-- Catalogo fijo de roles. La aplicacion los carga una vez al arrancar y los registros
+-- de usuarios solo los referencian por id, sin volver a escribir la tabla roles.
+insert into roles (rol_id, rol_nombre) select 1, 'ADMIN' from dual where not exists (select 1 from roles where rol_id = 1);
+insert into roles (rol_id, rol_nombre) select 2, 'NORMAL' from dual where not exists (select 1 from roles where rol_id = 2);
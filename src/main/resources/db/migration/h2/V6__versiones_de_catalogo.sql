@@ -0,0 +1,9 @@
+-- Version por agregado del catalogo. Cada escritura la incrementa en su misma transaccion y
+-- los nodos la usan como ETag de los listados, sin tocar las tablas para responder un 304.
+create table versiones_catalogo (
+    agregado varchar(30) not null,
+    version bigint not null,
+    primary key (agregado)
+);
+
+insert into versiones_catalogo (agregado, version) values ('categorias', 1), ('examenes', 1), ('preguntas', 1);
@@ -0,0 +1,17 @@
+-- Revocaciones de access tokens. Cada nodo las carga al arrancar y las refresca periodicamente,
+-- asi que sobreviven a un reinicio y se aplican en todo el cluster. Las filas dejan de servir
+-- cuando expira el ultimo token al que afectan.
+create table tokens_revocados (
+    jti varchar(36) not null,
+    expiracion timestamp not null,
+    primary key (jti)
+);
+
+create index ix_tokens_revocados_expiracion on tokens_revocados (expiracion);
+
+-- corte_segundos se compara con el iat del token, que tiene precision de segundos
+create table revocaciones_usuario (
+    username varchar(255) not null,
+    corte_segundos bigint not null,
+    primary key (username)
+);
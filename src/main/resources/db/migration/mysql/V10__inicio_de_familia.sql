@@ -0,0 +1,4 @@
+-- Momento en que empezo cada familia de refresh tokens (el inicio de sesion), que la rotacion
+-- copia a cada token nuevo. Una familia que empezo antes de una revocacion de todos los tokens
+-- del usuario ya no se puede rotar. Las filas anteriores quedan en null y se tratan como viejas.
+alter table refresh_tokens add column inicio_de_familia datetime(6);
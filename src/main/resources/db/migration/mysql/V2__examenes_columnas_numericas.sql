@@ -0,0 +1,17 @@
+-- puntos_maximos y numero_de_preguntas pasan de varchar a int. Los decimales se redondean
+-- y los valores no numericos quedan en 0 puntos / 1 pregunta. Tambien es valido si las
+-- columnas ya eran int.
+
+update examenes
+set puntos_maximos = case
+        when puntos_maximos regexp '^[[:space:]]*[0-9]+([.][0-9]+)?[[:space:]]*$' then cast(round(trim(puntos_maximos)) as char)
+        else '0'
+    end,
+    numero_de_preguntas = case
+        when numero_de_preguntas regexp '^[[:space:]]*[0-9]+([.][0-9]+)?[[:space:]]*$' and round(trim(numero_de_preguntas)) >= 1 then cast(round(trim(numero_de_preguntas)) as char)
+        else '1'
+    end;
+
+alter table examenes
+    modify puntos_maximos int not null,
+    modify numero_de_preguntas int not null;
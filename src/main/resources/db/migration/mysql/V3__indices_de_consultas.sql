@@ -0,0 +1,21 @@
+-- Indices de las consultas de los repositorios. Los de claves foraneas ya existian como
+-- indices implicitos de InnoDB; al declararlos MySQL descarta el implicito.
+
+-- UsuarioRepository.findByUsername, en cada autenticacion
+alter table usuarios modify username varchar(255) not null;
+create unique index ux_usuarios_username on usuarios (username);
+
+-- carga EAGER de Usuario.usuarioRoles
+create index ix_usuario_rol_usuario on usuario_rol (usuario_id);
+
+-- ExamenRepository.findByCategoriaAndActivo y findByCategoria
+create index ix_examenes_categoria_activo on examenes (categoria_categoria_id, activo);
+
+-- ExamenRepository.findByActivo
+create index ix_examenes_activo on examenes (activo);
+
+-- PreguntaRepository.findByExamen y Examen.preguntas
+create index ix_preguntas_examen on preguntas (examen_examen_id);
+
+-- RefreshTokenRepository.eliminarExpiradosAntesDe
+create index ix_refresh_tokens_expiracion on refresh_tokens (expiracion);
@@ -0,0 +1,40 @@
+-- Examenes inactivos por mas tiempo que la retencion se mueven, con sus preguntas, a tablas
+-- de archivo comprimidas. Las tablas calientes quedan con lo que se consulta cada semestre.
+
+-- momento en que el examen quedo inactivo; para los que ya lo estaban la retencion empieza hoy
+alter table examenes add column fecha_desactivacion datetime(6);
+update examenes set fecha_desactivacion = current_timestamp(6) where activo = false;
+
+-- ExamenRepository.findByActivo y la busqueda de candidatos a archivar
+drop index ix_examenes_activo on examenes;
+create index ix_examenes_activo_desactivacion on examenes (activo, fecha_desactivacion);
+
+-- se conservan los ids originales para que restaurar devuelva las mismas filas
+create table examenes_archivados (
+    examen_id bigint not null,
+    descripcion varchar(255),
+    numero_de_preguntas int not null,
+    puntos_maximos int not null,
+    titulo varchar(255),
+    categoria_categoria_id bigint,
+    fecha_desactivacion datetime(6),
+    fecha_archivado datetime(6) not null,
+    primary key (examen_id)
+) engine=InnoDB row_format=compressed;
+
+create index ix_examenes_archivados_categoria on examenes_archivados (categoria_categoria_id);
+
+create table preguntas_archivadas (
+    pregunta_id bigint not null,
+    contenido varchar(5000),
+    imagen varchar(255),
+    opcion1 varchar(255),
+    opcion2 varchar(255),
+    opcion3 varchar(255),
+    opcion4 varchar(255),
+    respuesta varchar(255),
+    examen_examen_id bigint not null,
+    primary key (pregunta_id)
+) engine=InnoDB row_format=compressed;
+
+create index ix_preguntas_archivadas_examen on preguntas_archivadas (examen_examen_id);
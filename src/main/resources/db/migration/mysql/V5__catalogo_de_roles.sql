@@ -0,0 +1,3 @@
+-- Catalogo fijo de roles. La aplicacion los carga una vez al arrancar y los registros
+-- de usuarios solo los referencian por id, sin volver a escribir la tabla roles.
+insert ignore into roles (rol_id, rol_nombre) values (1, 'ADMIN'), (2, 'NORMAL');
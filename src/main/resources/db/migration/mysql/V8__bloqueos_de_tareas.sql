@@ -0,0 +1,10 @@
+-- Una fila por tarea programada que debe correr en un solo nodo a la vez. El nodo que la toma
+-- la marca hasta bloqueado_hasta; si muere sin liberarla, vence sola y otro puede tomarla.
+create table bloqueos_de_tareas (
+    nombre varchar(50) not null,
+    bloqueado_hasta datetime(6) not null,
+    bloqueado_por varchar(100),
+    primary key (nombre)
+) engine=InnoDB;
+
+insert into bloqueos_de_tareas (nombre, bloqueado_hasta) values ('archivo-de-examenes', '1970-01-02 00:00:00');
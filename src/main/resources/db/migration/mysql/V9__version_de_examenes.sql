@@ -0,0 +1,5 @@
+-- Version de cada examen, de la que salen los ETag de /examen/{id} y de sus preguntas: editar un
+-- examen o sus preguntas ya no cambia el ETag de los demas. El archivo la conserva para que un
+-- examen restaurado no repita un ETag que ya se entrego.
+alter table examenes add column version bigint not null default 1;
+alter table examenes_archivados add column version bigint not null default 1;
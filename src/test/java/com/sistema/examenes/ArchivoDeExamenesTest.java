@@ -0,0 +1,191 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.BloqueoDeTareas;
+import com.sistema.examenes.excepciones.ExamenArchivadoNotFoundException;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.servicios.ArchivoService;
+import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.impl.ArchivoServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringJUnitConfig(ArchivoDeExamenesTest.Configuracion.class)
+@TestPropertySource(properties = {"examenes.archivo.retencion-dias=180", "examenes.archivo.lote=2"})
+public class ArchivoDeExamenesTest {
+
+    private static final int PREGUNTAS_POR_EXAMEN = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private ExamenService examenService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("delete from preguntas_archivadas");
+        jdbcTemplate.update("delete from examenes_archivados");
+        jdbcTemplate.update("delete from preguntas");
+        jdbcTemplate.update("delete from examenes");
+        jdbcTemplate.update("delete from categorias");
+        jdbcTemplate.update("insert into categorias (categoria_id, titulo) values (1, 'Java')");
+        jdbcTemplate.update("update bloqueos_de_tareas set bloqueado_hasta = ?, bloqueado_por = null", new Timestamp(0));
+
+        // 1, 4 y 5 superan la retencion; 2 quedo inactivo hace poco y 3 sigue activo
+        insertarExamen(1, false, 400);
+        insertarExamen(2, false, 10);
+        insertarExamen(3, true, -1);
+        insertarExamen(4, false, 200);
+        insertarExamen(5, false, 365);
+    }
+
+    private void insertarExamen(long examenId, boolean activo, int diasInactivo) {
+        Timestamp fechaDesactivacion = diasInactivo < 0 ? null : new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(diasInactivo));
+        jdbcTemplate.update("insert into examenes (examen_id, titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id, fecha_desactivacion) values (?, 'Examen', ?, 100, 3, 1, ?)",
+                examenId, activo, fechaDesactivacion);
+        for (int i = 0; i < PREGUNTAS_POR_EXAMEN; i++) {
+            jdbcTemplate.update("insert into preguntas (pregunta_id, contenido, respuesta, examen_examen_id) values (?, 'Pregunta', 'A', ?)",
+                    examenId * 100 + i, examenId);
+        }
+    }
+
+    private int contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    @Test
+    void testArchivaSoloLosInactivosMasAllaDeLaRetencion() {
+        assertThat(archivoService.archivarExamenesInactivos()).isEqualTo(3);
+
+        assertThat(jdbcTemplate.queryForList("select examen_id from examenes order by examen_id", Long.class)).containsExactly(2L, 3L);
+        assertThat(contar("select count(*) from preguntas")).isEqualTo(2 * PREGUNTAS_POR_EXAMEN);
+        assertThat(jdbcTemplate.queryForList("select examen_id from examenes_archivados order by examen_id", Long.class)).containsExactly(1L, 4L, 5L);
+        assertThat(contar("select count(*) from preguntas_archivadas")).isEqualTo(3 * PREGUNTAS_POR_EXAMEN);
+        assertThat(archivoService.obtenerExamenesArchivados()).hasSize(3);
+
+        assertThat(archivoService.archivarExamenesInactivos()).isZero();
+    }
+
+    @Test
+    void testNoCorreMientrasOtroNodoTieneLaTarea() {
+        Timestamp vence = new Timestamp(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10));
+        jdbcTemplate.update("update bloqueos_de_tareas set bloqueado_hasta = ?, bloqueado_por = 'otro-nodo' where nombre = ?",
+                vence, BloqueoDeTareas.ARCHIVO_DE_EXAMENES);
+
+        assertThat(archivoService.archivarExamenesInactivos()).isZero();
+        assertThat(contar("select count(*) from examenes")).isEqualTo(5);
+        // no libera un bloqueo que no es suyo
+        assertThat(jdbcTemplate.queryForObject("select bloqueado_por from bloqueos_de_tareas where nombre = ?", String.class,
+                BloqueoDeTareas.ARCHIVO_DE_EXAMENES)).isEqualTo("otro-nodo");
+
+        // si el otro nodo murio, el bloqueo vence y la tarea vuelve a correr
+        jdbcTemplate.update("update bloqueos_de_tareas set bloqueado_hasta = ? where nombre = ?",
+                new Timestamp(System.currentTimeMillis() - 1000), BloqueoDeTareas.ARCHIVO_DE_EXAMENES);
+        assertThat(archivoService.archivarExamenesInactivos()).isEqualTo(3);
+    }
+
+    @Test
+    void testUnExamenReactivadoDuranteElArchivoNoSeArchiva() throws Exception {
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            conexion.createStatement().executeUpdate("update examenes set activo = true, fecha_desactivacion = null where examen_id = 1");
+
+            // el lote espera el bloqueo de la reactivacion y despues vuelve a evaluar el filtro
+            CompletableFuture<Integer> archivados = CompletableFuture.supplyAsync(archivoService::archivarExamenesInactivos);
+            Thread.sleep(200);
+            conexion.commit();
+
+            assertThat(archivados.get(10, TimeUnit.SECONDS)).isEqualTo(2);
+        }
+        assertThat(jdbcTemplate.queryForList("select examen_id from examenes order by examen_id", Long.class)).containsExactly(1L, 2L, 3L);
+        assertThat(contar("select count(*) from preguntas where examen_examen_id = 1")).isEqualTo(PREGUNTAS_POR_EXAMEN);
+        assertThat(contar("select count(*) from examenes_archivados where examen_id = 1")).isZero();
+    }
+
+    @Test
+    void testRestaurarDevuelveElExamenConSusPreguntas() throws Exception {
+        long version = jdbcTemplate.queryForObject("select version from examenes where examen_id = 1", Long.class);
+        archivoService.archivarExamenesInactivos();
+
+        Examen examen = archivoService.restaurarExamen(1L);
+
+        assertThat(examen.getExamenId()).isEqualTo(1L);
+        // el ETag que los clientes guardaron antes de archivar ya no vale
+        assertThat(examen.getVersion()).isEqualTo(version + 1);
+        assertThat(examen.isActivo()).isFalse();
+        assertThat(examen.getFechaDesactivacion()).isAfter(new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1)));
+        assertThat(jdbcTemplate.queryForList("select pregunta_id from preguntas where examen_examen_id = 1 order by pregunta_id", Long.class))
+                .containsExactly(100L, 101L, 102L);
+        assertThat(contar("select count(*) from examenes_archivados where examen_id = 1")).isZero();
+        assertThat(contar("select count(*) from preguntas_archivadas where examen_examen_id = 1")).isZero();
+
+        // la retencion se reinicia al restaurar, asi que no vuelve al archivo en la siguiente pasada
+        assertThat(archivoService.archivarExamenesInactivos()).isZero();
+    }
+
+    @Test
+    void testRestaurarUnExamenQueNoEstaArchivado() {
+        assertThatThrownBy(() -> archivoService.restaurarExamen(3L)).isInstanceOf(ExamenArchivadoNotFoundException.class);
+    }
+
+    @Test
+    void testFechaDesactivacionSeConservaEntreEdiciones() {
+        Categoria categoria = new Categoria();
+        categoria.setCategoriaId(1L);
+        Examen examen = new Examen();
+        examen.setTitulo("Nuevo");
+        examen.setPuntosMaximos(10);
+        examen.setNumeroDePreguntas(1);
+        examen.setCategoria(categoria);
+
+        Examen guardado = examenService.agregarExamen(examen);
+        Date fechaDesactivacion = guardado.getFechaDesactivacion();
+        assertThat(fechaDesactivacion).isNotNull();
+
+        guardado.setFechaDesactivacion(null);
+        guardado.setTitulo("Editado");
+        assertThat(examenService.actualizarExamen(guardado).getFechaDesactivacion().getTime()).isEqualTo(fechaDesactivacion.getTime());
+
+        guardado.setActivo(true);
+        assertThat(examenService.actualizarExamen(guardado).getFechaDesactivacion()).isNull();
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, ArchivoServiceImpl.class, BloqueoDeTareas.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("archivo");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.ArranqueConfig;
+import com.sistema.examenes.configuraciones.GrabacionContinua;
+import com.sistema.examenes.configuraciones.RegistroDeRoles;
+import com.sistema.examenes.configuraciones.SiembraDeAdministrador;
+import com.sistema.examenes.servicios.impl.ArchivoServiceImpl;
+import com.sistema.examenes.servicios.impl.CategoriaServiceImpl;
+import com.sistema.examenes.servicios.impl.UsuarioServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringJUnitConfig(ArranqueTest.Configuracion.class)
+public class ArranqueTest {
+
+    @Autowired
+    private SiembraDeAdministrador siembraDeAdministrador;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limpiar() {
+        jdbcTemplate.update("delete from usuario_rol");
+        jdbcTemplate.update("delete from usuarios");
+    }
+
+    @Test
+    void testLaSiembraCreaElAdministradorUnaSolaVez() {
+        siembraDeAdministrador.alQuedarLista();
+        siembraDeAdministrador.esperarSiembra();
+        siembraDeAdministrador.alQuedarLista();
+        siembraDeAdministrador.esperarSiembra();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from usuarios where username = 'admin'", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select r.rol_nombre from usuario_rol ur join roles r on r.rol_id = ur.rol_rol_id", String.class)).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void testLasTareasProgramadasNoSeDifieren() {
+        LazyInitializationExcludeFilter filtro = ArranqueConfig.tareasProgramadasAlArrancar();
+
+        assertThat(filtro.isExcluded("archivoServiceImpl", null, ArchivoServiceImpl.class)).isTrue();
+        assertThat(filtro.isExcluded("categoriaServiceImpl", null, CategoriaServiceImpl.class)).isFalse();
+    }
+
+    @Test
+    void testLaGrabacionJfrNoSeDifiere() {
+        LazyInitializationExcludeFilter filtro = ArranqueConfig.efectosAlArrancar();
+
+        assertThat(filtro.isExcluded("grabacionContinua", null, GrabacionContinua.class)).isTrue();
+        assertThat(filtro.isExcluded("registroDeRoles", null, RegistroDeRoles.class)).isFalse();
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, UsuarioServiceImpl.class, RegistroDeRoles.class, SiembraDeAdministrador.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("arranque");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public BCryptPasswordEncoder bCryptPasswordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
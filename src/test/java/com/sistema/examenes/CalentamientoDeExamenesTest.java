@@ -0,0 +1,156 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.configuraciones.CalentamientoDeExamenes;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.PreguntaService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El calentamiento deja en cache lo que se lee al rendir y calificar los examenes activos,
+ * y las ediciones desalojan esas entradas.
+ */
+@SpringJUnitConfig(CalentamientoDeExamenesTest.Configuracion.class)
+public class CalentamientoDeExamenesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CalentamientoDeExamenes calentamientoDeExamenes;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    @Autowired
+    private ExamenService examenService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics estadisticas;
+
+    @Autowired
+    void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("delete from preguntas");
+        jdbcTemplate.update("delete from examenes");
+        jdbcTemplate.update("delete from categorias");
+        jdbcTemplate.update("insert into categorias (categoria_id, titulo) values (1, 'Java')");
+        for (long examen = 1; examen <= 3; examen++) {
+            jdbcTemplate.update("insert into examenes (examen_id, titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values (?, 'Examen', ?, 100, 2, 1)",
+                    examen, examen != 3);
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.update("insert into preguntas (pregunta_id, contenido, respuesta, examen_examen_id) values (?, 'Pregunta', 'A', ?)", examen * 10 + i, examen);
+            }
+        }
+        for (String cache : cacheManager.getCacheNames()) {
+            cacheManager.getCache(cache).clear();
+        }
+        estadisticas.clear();
+    }
+
+    @Test
+    void testRendirYCalificarUnExamenCalentadoNoVaALaBase() {
+        calentamientoDeExamenes.calentar();
+
+        Health salud = calentamientoDeExamenes.health();
+        assertThat(salud.getStatus()).isEqualTo(Status.UP);
+        assertThat(salud.getDetails()).containsEntry("examenesActivos", 2).containsEntry("examenesCalentados", 2).containsEntry("completo", true);
+
+        estadisticas.clear();
+        List<Pregunta> preguntas = preguntaService.obtenerPreguntasParaRendir(1L);
+        preguntas.forEach(pregunta -> pregunta.setRespuestaDada("A"));
+        assertThat(preguntaService.evaluarExamen(preguntas)).containsEntry("respuestasCorrectas", 2);
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+
+        assertThat(cacheManager.getCache(CacheConfig.EXAMENES).get(3L)).isNull();
+    }
+
+    @Test
+    void testEditarUnaPreguntaDesalojaElBancoYLaClave() {
+        calentamientoDeExamenes.calentar();
+
+        Pregunta pregunta = preguntaService.obtenerPregunta(10L);
+        pregunta.setRespuesta("B");
+        preguntaService.actualizarPregunta(pregunta);
+
+        assertThat(cacheManager.getCache(CacheConfig.PREGUNTAS_DEL_EXAMEN).get(1L)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.RESPUESTAS_CORRECTAS).get(1L)).isNull();
+        pregunta.setRespuestaDada("B");
+        assertThat(preguntaService.evaluarExamen(Collections.singletonList(pregunta))).containsEntry("respuestasCorrectas", 1);
+
+        examenService.eliminarExamen(2L);
+        assertThat(cacheManager.getCache(CacheConfig.EXAMENES).get(2L)).isNull();
+    }
+
+    @Test
+    void testSinPresupuestoElNodoQuedaListoAunqueIncompleto() {
+        CalentamientoDeExamenes sinPresupuesto = new CalentamientoDeExamenes();
+        ReflectionTestUtils.setField(sinPresupuesto, "examenService", examenService);
+        ReflectionTestUtils.setField(sinPresupuesto, "preguntaService", preguntaService);
+        ReflectionTestUtils.setField(sinPresupuesto, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(sinPresupuesto, "presupuestoMs", -1L);
+        assertThat(sinPresupuesto.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        sinPresupuesto.calentar();
+
+        assertThat(sinPresupuesto.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(sinPresupuesto.health().getDetails()).containsEntry("examenesCalentados", 0).containsEntry("completo", false);
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, CacheConfig.class, CalentamientoDeExamenes.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("calentamiento");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS);
+        }
+
+        @Bean
+        public ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
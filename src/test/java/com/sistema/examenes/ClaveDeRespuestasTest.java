@@ -0,0 +1,80 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.ClaveDeRespuestas;
+import com.sistema.examenes.modelo.IntentoEmpaquetado;
+import com.sistema.examenes.modelo.RespuestaCorrecta;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClaveDeRespuestasTest {
+
+    private static ClaveDeRespuestas clave(int[] opciones) {
+        List<RespuestaCorrecta> ordenadas = new ArrayList<>();
+        for (int i = 0; i < opciones.length; i++) {
+            ordenadas.add(new RespuestaCorrecta(100L + i, "respuesta " + i, opciones[i]));
+        }
+        return new ClaveDeRespuestas(ordenadas);
+    }
+
+    @Test
+    void testElConteoEmpaquetadoCoincideConCompararUnaPorUna() {
+        Random random = new Random(7);
+        // 70 preguntas: dos palabras llenas y una a medias
+        int[] correctas = new int[70];
+        for (int i = 0; i < correctas.length; i++) {
+            // algunas respuestas guardadas no coinciden con ninguna opcion
+            correctas[i] = i % 13 == 0 ? 0 : 1 + random.nextInt(4);
+        }
+        ClaveDeRespuestas clave = clave(correctas);
+
+        for (int intento = 0; intento < 50; intento++) {
+            IntentoEmpaquetado empaquetado = new IntentoEmpaquetado(clave.tamano());
+            int esperadas = 0;
+            int respondidas = 0;
+            for (int i = 0; i < correctas.length; i++) {
+                int elegida = random.nextInt(5);
+                empaquetado.responder(i, elegida);
+                if (elegida != 0) {
+                    respondidas++;
+                    if (elegida == correctas[i]) {
+                        esperadas++;
+                    }
+                }
+            }
+            assertThat(clave.contarCorrectas(empaquetado)).isEqualTo(esperadas);
+            assertThat(empaquetado.contarRespondidas()).isEqualTo(respondidas);
+        }
+    }
+
+    @Test
+    void testResponderDeNuevoReemplazaLaOpcion() {
+        ClaveDeRespuestas clave = clave(new int[]{4, 1});
+        IntentoEmpaquetado intento = new IntentoEmpaquetado(clave.tamano());
+
+        intento.responder(0, 4);
+        intento.responder(1, 1);
+        assertThat(clave.contarCorrectas(intento)).isEqualTo(2);
+
+        intento.responder(0, 2);
+        intento.responder(1, 0);
+        assertThat(clave.contarCorrectas(intento)).isZero();
+        assertThat(intento.contarRespondidas()).isEqualTo(1);
+    }
+
+    @Test
+    void testLasPosicionesSiguenElOrdenDeLaClave() {
+        ClaveDeRespuestas clave = clave(new int[]{1, 2, 3});
+
+        assertThat(clave.posicion(100L)).isZero();
+        assertThat(clave.posicion(102L)).isEqualTo(2);
+        assertThat(clave.posicion(99L)).isEqualTo(-1);
+        assertThat(clave.respuesta(1)).isEqualTo("respuesta 1");
+        assertThatThrownBy(() -> clave.contarCorrectas(new IntentoEmpaquetado(40))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
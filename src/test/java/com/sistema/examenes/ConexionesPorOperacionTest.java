@@ -0,0 +1,123 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.CategoriaService;
+import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.PreguntaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada operacion de los servicios debe resolverse en una sola transaccion, es decir, con una
+ * sola conexion del pool, sin importar cuantas preguntas tenga el examen.
+ */
+@SpringJUnitConfig(ConexionesPorOperacionTest.Configuracion.class)
+public class ConexionesPorOperacionTest {
+
+    private static final int PREGUNTAS = 25;
+
+    @Autowired
+    private ContadorDeConexiones contador;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    @Autowired
+    private ExamenService examenService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @BeforeEach
+    void reiniciarContador() {
+        contador.conexiones.set(0);
+    }
+
+    @Test
+    void testEvaluarExamenUsaUnaConexion() {
+        List<Pregunta> respuestas = new ArrayList<>();
+        for (long id = 1; id <= PREGUNTAS; id++) {
+            Examen examen = new Examen();
+            examen.setExamenId(1L);
+            examen.setPuntosMaximos(100);
+            Pregunta respuesta = new Pregunta();
+            respuesta.setPreguntaId(id);
+            respuesta.setExamen(examen);
+            respuesta.setRespuestaDada(id % 2 == 0 ? "A" : "B");
+            respuestas.add(respuesta);
+        }
+
+        Map<String, Object> resultado = preguntaService.evaluarExamen(respuestas);
+
+        assertThat(resultado.get("respuestasCorrectas")).isEqualTo(PREGUNTAS / 2);
+        assertThat(resultado.get("intentos")).isEqualTo(PREGUNTAS);
+        assertThat(contador.conexiones.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testPreguntasParaRendirUsaUnaConexion() {
+        List<Pregunta> preguntas = preguntaService.obtenerPreguntasParaRendir(1L);
+
+        assertThat(preguntas).hasSize(10);
+        assertThat(contador.conexiones.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testListadosUsanUnaConexionCadaUno() {
+        categoriaService.obtenerCategorias();
+        examenService.obtenerExamenesActivos();
+
+        assertThat(contador.conexiones.get()).isEqualTo(2);
+    }
+
+    static class ContadorDeConexiones extends DelegatingDataSource {
+
+        private final AtomicInteger conexiones = new AtomicInteger();
+
+        ContadorDeConexiones(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            conexiones.incrementAndGet();
+            return super.getConnection();
+        }
+    }
+
+    @Configuration
+    @Import(JpaEnMemoria.class)
+    static class Configuracion {
+
+        @Bean
+        public ContadorDeConexiones dataSource() {
+            DataSource dataSource = JpaEnMemoria.migrar("conexiones");
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("insert into categorias (titulo) values ('Java')");
+            jdbcTemplate.update("insert into examenes (titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values ('Basico', true, 100, 10, 1)");
+            for (int i = 1; i <= PREGUNTAS; i++) {
+                jdbcTemplate.update("insert into preguntas (contenido, respuesta, examen_examen_id) values (?, 'A', 1)", "Pregunta " + i);
+            }
+            return new ContadorDeConexiones(dataSource);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.sistema.examenes;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.sistema.examenes.configuraciones.ConsultasPorPeticion;
+import com.sistema.examenes.configuraciones.FiltroDeConsultas;
+import com.sistema.examenes.configuraciones.ProxyDeDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * El proxy del DataSource cuenta las sentencias del hilo, FiltroDeConsultas las publica por
+ * endpoint en examenes.sql.* y el contador no sobrevive a la peticion.
+ */
+public class ConsultasPorPeticionTest {
+
+    private static final DataSource BASE = JpaEnMemoria.migrar("consultas-por-peticion");
+
+    private JdbcTemplate jdbcTemplate;
+    private FiltroDeConsultas filtro;
+    private SimpleMeterRegistry registro;
+    private Logger logger;
+    private ListAppender<ILoggingEvent> eventos;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate((DataSource) new ProxyDeDataSource().postProcessAfterInitialization(BASE, "dataSource"));
+        filtro = new FiltroDeConsultas();
+        ReflectionTestUtils.setField(filtro, "umbralSentencias", 2);
+        ReflectionTestUtils.setField(filtro, "umbralMs", 10000L);
+        registro = new SimpleMeterRegistry();
+        Metrics.addRegistry(registro);
+        logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(FiltroDeConsultas.class);
+        eventos = new ListAppender<>();
+        eventos.start();
+        logger.addAppender(eventos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registro);
+        logger.detachAppender(eventos);
+        ConsultasPorPeticion.terminar();
+    }
+
+    private void consultar(int sentencias) {
+        for (int i = 0; i < sentencias; i++) {
+            jdbcTemplate.queryForObject("select count(*) from categorias", Integer.class);
+        }
+    }
+
+    // la cadena ejecuta las sentencias como lo haria el controlador del patron indicado
+    private void peticion(String patron, int sentencias, boolean fallar) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", patron.replace("{examenId}", "1"));
+        FilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, patron);
+                consultar(sentencias);
+                if (fallar) {
+                    throw new ServletException("fallo del controlador");
+                }
+            }
+        }, new Filter[0]);
+        filtro.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private DistributionSummary sentencias(String patron) {
+        return registro.find("examenes.sql.sentencias").tag("method", "GET").tag("uri", patron).summary();
+    }
+
+    @Test
+    void testElProxyCuentaLasSentenciasDelHiloActual() {
+        ConsultasPorPeticion consultas = ConsultasPorPeticion.iniciar();
+        consultar(3);
+        ConsultasPorPeticion.terminar();
+        consultar(2);
+
+        assertThat(consultas.getSentencias()).isEqualTo(3);
+        assertThat(consultas.getMasLenta()).isEqualTo("select count(*) from categorias");
+        assertThat(consultas.getTiempoMasLentaMs()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void testSoloSeEnvuelveElDataSourcePrincipal() {
+        assertThat(new ProxyDeDataSource().postProcessAfterInitialization(BASE, "dataSourceDeLectura")).isSameAs(BASE);
+    }
+
+    @Test
+    void testElFiltroPublicaLasSentenciasPorEndpoint() throws Exception {
+        peticion("/pregunta/examen/{examenId}", 3, false);
+        peticion("/pregunta/examen/{examenId}", 1, false);
+
+        DistributionSummary porPeticion = sentencias("/pregunta/examen/{examenId}");
+        assertThat(porPeticion.count()).isEqualTo(2);
+        assertThat(porPeticion.totalAmount()).isEqualTo(4);
+        assertThat(porPeticion.max()).isEqualTo(3);
+        assertThat(registro.find("examenes.sql.tiempo").tag("uri", "/pregunta/examen/{examenId}").timer().count()).isEqualTo(2);
+
+        // solo la peticion que supero el umbral de 2 sentencias
+        assertThat(eventos.list).hasSize(1);
+        assertThat(eventos.list.get(0).getFormattedMessage()).contains("sentencias=3").contains("select count(*) from categorias");
+    }
+
+    @Test
+    void testElContadorSeReiniciaEntrePeticionesAunqueFallen() throws Exception {
+        assertThatThrownBy(() -> peticion("/examen/{examenId}", 2, true)).isInstanceOf(ServletException.class);
+        // fuera de una peticion no se cuenta nada
+        consultar(5);
+        peticion("/examen/{examenId}", 1, false);
+
+        DistributionSummary porPeticion = sentencias("/examen/{examenId}");
+        assertThat(porPeticion.count()).isEqualTo(2);
+        assertThat(porPeticion.totalAmount()).isEqualTo(3);
+        assertThat(porPeticion.max()).isEqualTo(2);
+    }
+}
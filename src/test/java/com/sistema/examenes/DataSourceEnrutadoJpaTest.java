@@ -0,0 +1,148 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.DataSourceEnrutado;
+import com.sistema.examenes.configuraciones.EscriturasRecientes;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.repositorios.CategoriaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El enrutado a traves de JpaTransactionManager, como en la aplicacion: solo una escritura
+ * confirmada manda las lecturas del usuario a la primaria, no cualquier transaccion de escritura.
+ */
+@SpringJUnitConfig(DataSourceEnrutadoJpaTest.Configuracion.class)
+public class DataSourceEnrutadoJpaTest {
+
+    private static final DataSource PRIMARIA = JpaEnMemoria.migrar("primaria-jpa");
+    private static final DataSource REPLICA = JpaEnMemoria.migrar("replica-jpa");
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EscriturasRecientes escriturasRecientes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate escritura;
+    private TransactionTemplate lectura;
+
+    @BeforeEach
+    void setUp() {
+        sembrar(PRIMARIA, "primaria");
+        sembrar(REPLICA, "replica");
+        escritura = new TransactionTemplate(transactionManager);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void sembrar(DataSource base, String titulo) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(base);
+        jdbcTemplate.update("delete from categorias");
+        jdbcTemplate.update("insert into categorias (categoria_id, titulo) values (1, ?)", titulo);
+    }
+
+    // cada prueba usa su propio usuario: la ventana de escrituras recientes dura todo el contexto
+    private static void autenticar(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+
+    private String origenEn(TransactionTemplate transaccion) {
+        return transaccion.execute(estado -> categoriaRepository.findById(1L).get().getTitulo());
+    }
+
+    private Categoria nueva() {
+        Categoria categoria = new Categoria();
+        categoria.setTitulo("Kotlin");
+        return categoriaRepository.save(categoria);
+    }
+
+    @Test
+    void testLecturasVanALaReplicaYEscriturasALaPrimaria() {
+        autenticar("lector");
+
+        assertThat(origenEn(lectura)).isEqualTo("replica");
+        assertThat(origenEn(escritura)).isEqualTo("primaria");
+    }
+
+    @Test
+    void testUnaTransaccionDeEscrituraSinEscriturasNoRegistraAlUsuario() {
+        autenticar("solo-lee");
+
+        assertThat(origenEn(escritura)).isEqualTo("primaria");
+
+        assertThat(escriturasRecientes.esReciente("solo-lee")).isFalse();
+        assertThat(origenEn(lectura)).isEqualTo("replica");
+    }
+
+    @Test
+    void testUnaEscrituraConfirmadaLlevaSusLecturasALaPrimaria() {
+        autenticar("escritor");
+
+        escritura.execute(estado -> {
+            nueva();
+            // hasta el commit el usuario sigue leyendo de la replica
+            assertThat(escriturasRecientes.esReciente("escritor")).isFalse();
+            return null;
+        });
+
+        assertThat(escriturasRecientes.esReciente("escritor")).isTrue();
+        Long categorias = lectura.execute(estado -> categoriaRepository.count());
+        assertThat(categorias).isEqualTo(2);
+        assertThat(origenEn(lectura)).isEqualTo("primaria");
+    }
+
+    @Test
+    void testUnaEscrituraRevertidaNoRegistraAlUsuario() {
+        autenticar("arrepentido");
+
+        escritura.execute(estado -> {
+            nueva();
+            estado.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(escriturasRecientes.esReciente("arrepentido")).isFalse();
+        assertThat(origenEn(lectura)).isEqualTo("replica");
+    }
+
+    @Configuration
+    @Import(JpaEnMemoria.class)
+    static class Configuracion {
+
+        @Bean
+        public EscriturasRecientes escriturasRecientes() {
+            return new EscriturasRecientes(60000);
+        }
+
+        @Bean
+        public DataSource dataSource(EscriturasRecientes escriturasRecientes) {
+            return new LazyConnectionDataSourceProxy(new DataSourceEnrutado(PRIMARIA, REPLICA, escriturasRecientes));
+        }
+    }
+}
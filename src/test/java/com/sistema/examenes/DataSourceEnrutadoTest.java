@@ -0,0 +1,97 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.DataSourceEnrutado;
+import com.sistema.examenes.configuraciones.EscriturasRecientes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos bases H2 en memoria hacen de primaria y replica; cada una responde con su nombre.
+ */
+public class DataSourceEnrutadoTest {
+
+    private DriverManagerDataSource primaria;
+    private DriverManagerDataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escritura;
+    private TransactionTemplate lectura;
+
+    @BeforeEach
+    void setUp() {
+        primaria = crearBase("primaria");
+        replica = crearBase("replica");
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new DataSourceEnrutado(primaria, replica, new EscriturasRecientes(60000)));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        escritura = new TransactionTemplate(transactionManager);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primaria).execute("drop all objects");
+        new JdbcTemplate(replica).execute("drop all objects");
+    }
+
+    private static DriverManagerDataSource crearBase(String nombre) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table origen (nombre varchar(20))");
+        jdbcTemplate.update("insert into origen values (?)", nombre);
+        return dataSource;
+    }
+
+    private String origen() {
+        return jdbcTemplate.queryForObject("select nombre from origen", String.class);
+    }
+
+    private String origenEn(TransactionTemplate transaccion) {
+        return transaccion.execute(estado -> origen());
+    }
+
+    private static void autenticar(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+
+    @Test
+    void testLecturasVanALaReplicaYEscriturasALaPrimaria() {
+        autenticar("elias");
+
+        assertThat(origenEn(lectura)).isEqualTo("replica");
+        assertThat(origenEn(escritura)).isEqualTo("primaria");
+    }
+
+    @Test
+    void testSinTransaccionSeUsaLaPrimaria() {
+        assertThat(origen()).isEqualTo("primaria");
+    }
+
+    @Test
+    void testLeeSusPropiasEscriturasDuranteLaVentana() {
+        autenticar("elias");
+        escritura.execute(estado -> jdbcTemplate.update("insert into origen values ('nuevo')"));
+
+        Integer filas = lectura.execute(estado -> jdbcTemplate.queryForObject("select count(*) from origen", Integer.class));
+        assertThat(filas).isEqualTo(2);
+
+        autenticar("otro");
+        assertThat(origenEn(lectura)).isEqualTo("replica");
+    }
+}
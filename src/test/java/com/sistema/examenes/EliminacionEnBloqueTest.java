@@ -0,0 +1,111 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.servicios.CategoriaService;
+import com.sistema.examenes.servicios.ExamenService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eliminar una categoria o un examen borra sus dependientes con sentencias en bloque,
+ * sin cargar ninguna entidad, y deja intactos los datos de las demas categorias.
+ */
+@SpringJUnitConfig(EliminacionEnBloqueTest.Configuracion.class)
+public class EliminacionEnBloqueTest {
+
+    private static final int EXAMENES = 5;
+    private static final int PREGUNTAS_POR_EXAMEN = 40;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ExamenService examenService;
+
+    private Statistics estadisticas;
+
+    @Autowired
+    void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("delete from preguntas");
+        jdbcTemplate.update("delete from examenes");
+        jdbcTemplate.update("delete from categorias");
+        for (long categoria = 1; categoria <= 2; categoria++) {
+            jdbcTemplate.update("insert into categorias (categoria_id, titulo) values (?, ?)", categoria, "Categoria " + categoria);
+            for (int e = 0; e < EXAMENES; e++) {
+                long examen = categoria * 100 + e;
+                jdbcTemplate.update("insert into examenes (examen_id, titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values (?, 'Examen', true, 100, 10, ?)", examen, categoria);
+                for (int p = 0; p < PREGUNTAS_POR_EXAMEN; p++) {
+                    jdbcTemplate.update("insert into preguntas (contenido, respuesta, examen_examen_id) values ('Pregunta', 'A', ?)", examen);
+                }
+            }
+        }
+        estadisticas.clear();
+    }
+
+    private int contar(String sql, Object... argumentos) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, argumentos);
+    }
+
+    @Test
+    void testEliminarCategoriaBorraExamenesYPreguntasEnBloque() {
+        categoriaService.eliminarCategoria(1L);
+
+        assertThat(contar("select count(*) from categorias where categoria_id = 1")).isZero();
+        assertThat(contar("select count(*) from examenes where categoria_categoria_id = 1")).isZero();
+        assertThat(contar("select count(*) from preguntas p join examenes e on p.examen_examen_id = e.examen_id where e.categoria_categoria_id = 1")).isZero();
+        assertThat(contar("select count(*) from preguntas")).isEqualTo(EXAMENES * PREGUNTAS_POR_EXAMEN);
+        assertThat(contar("select count(*) from examenes where categoria_categoria_id = 2")).isEqualTo(EXAMENES);
+
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+        // preguntas y examenes archivados, preguntas, examenes, la categoria y las versiones del catalogo
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(7);
+    }
+
+    @Test
+    void testEliminarExamenBorraSusPreguntasEnBloque() {
+        examenService.eliminarExamen(100L);
+
+        assertThat(contar("select count(*) from examenes where examen_id = 100")).isZero();
+        assertThat(contar("select count(*) from preguntas where examen_examen_id = 100")).isZero();
+        assertThat(contar("select count(*) from preguntas")).isEqualTo((2 * EXAMENES - 1) * PREGUNTAS_POR_EXAMEN);
+
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+        // preguntas, el examen y las versiones del catalogo
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Configuration
+    @Import(JpaEnMemoria.class)
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("eliminacion");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.excepciones.EntregaInvalidaException;
+import com.sistema.examenes.modelo.Entrega;
+import com.sistema.examenes.modelo.RespuestaCorrecta;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.PreguntaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * La entrega compacta se califica con los puntos y la clave del servidor, sin importar lo que
+ * diga el cliente sobre el examen.
+ */
+@SpringJUnitConfig(EntregaCompactaTest.Configuracion.class)
+public class EntregaCompactaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("delete from preguntas");
+        jdbcTemplate.update("delete from examenes");
+        jdbcTemplate.update("delete from categorias");
+        jdbcTemplate.update("insert into categorias (categoria_id, titulo) values (1, 'Java')");
+        // se sirven 3 de las 4 preguntas por intento
+        jdbcTemplate.update("insert into examenes (examen_id, titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values (1, 'Examen', true, 90, 3, 1)");
+        jdbcTemplate.update("insert into examenes (examen_id, titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values (2, 'Otro', true, 10, 1, 1)");
+        insertarPregunta(13, 1, "C");
+        insertarPregunta(11, 1, "A");
+        insertarPregunta(12, 1, "B");
+        insertarPregunta(14, 1, "D");
+        insertarPregunta(21, 2, "A");
+    }
+
+    private void insertarPregunta(long preguntaId, long examenId, String respuesta) {
+        jdbcTemplate.update("insert into preguntas (pregunta_id, contenido, opcion1, opcion2, opcion3, opcion4, respuesta, examen_examen_id) values (?, 'Pregunta', 'A', 'B', 'C', 'D', ?, ?)",
+                preguntaId, respuesta, examenId);
+    }
+
+    @Test
+    void testLaClaveIndicaLaOpcionCorrectaEnOrdenDePregunta() {
+        assertThat(preguntaRepository.buscarRespuestasCorrectas(1L))
+                .extracting(RespuestaCorrecta::getPreguntaId, RespuestaCorrecta::getOpcion)
+                .containsExactly(tuple(11L, 1), tuple(12L, 2), tuple(13L, 3), tuple(14L, 4));
+    }
+
+    @Test
+    void testLosPuntosSalenDelExamenGuardado() throws Exception {
+        // el cliente no puede mandar puntos: solo el examen, las preguntas y las opciones
+        Entrega entrega = objectMapper.readValue("{\"examenId\":1,\"preguntaIds\":[14,11,13],\"respuestas\":[4,2,0]}", Entrega.class);
+
+        Map<String, Object> resultado = preguntaService.evaluarEntrega(entrega);
+
+        assertThat(resultado.get("respuestasCorrectas")).isEqualTo(1);
+        assertThat(resultado.get("intentos")).isEqualTo(2);
+        assertThat(resultado.get("puntosMaximos")).isEqualTo(30.0);
+    }
+
+    @Test
+    void testResponderMenosPreguntasNoSubeElValorDeCadaUna() throws Exception {
+        Map<String, Object> resultado = preguntaService.evaluarEntrega(new Entrega(1L, new long[]{12}, new byte[]{2}));
+
+        assertThat(resultado.get("puntosMaximos")).isEqualTo(30.0);
+    }
+
+    @Test
+    void testLasEntregasQueNoCorrespondenAlExamenSeRechazan() {
+        // pregunta repetida, de otro examen, mas preguntas de las que se sirven, opcion inexistente y arreglos desparejos
+        assertThatThrownBy(() -> preguntaService.evaluarEntrega(new Entrega(1L, new long[]{11, 11}, new byte[]{1, 1})))
+                .isInstanceOf(EntregaInvalidaException.class);
+        assertThatThrownBy(() -> preguntaService.evaluarEntrega(new Entrega(1L, new long[]{21}, new byte[]{1})))
+                .isInstanceOf(EntregaInvalidaException.class);
+        assertThatThrownBy(() -> preguntaService.evaluarEntrega(new Entrega(1L, new long[]{11, 12, 13, 14}, new byte[]{1, 2, 3, 4})))
+                .isInstanceOf(EntregaInvalidaException.class);
+        assertThatThrownBy(() -> preguntaService.evaluarEntrega(new Entrega(1L, new long[]{11}, new byte[]{5})))
+                .isInstanceOf(EntregaInvalidaException.class);
+        assertThatThrownBy(() -> preguntaService.evaluarEntrega(new Entrega(1L, new long[]{11, 12}, new byte[]{1})))
+                .isInstanceOf(EntregaInvalidaException.class);
+        assertThatThrownBy(() -> preguntaService.evaluarEntrega(new Entrega(99L, new long[]{11}, new byte[]{1})))
+                .isInstanceOf(EntregaInvalidaException.class);
+    }
+
+    @Configuration
+    @Import(JpaEnMemoria.class)
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("entregas");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+}
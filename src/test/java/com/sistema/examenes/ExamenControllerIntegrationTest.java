@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -22,6 +23,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
+@ActiveProfiles("test")
 @AutoConfigureMockMvc
 //@Transactional
 public class ExamenControllerIntegrationTest {
@@ -57,8 +59,8 @@ public class ExamenControllerIntegrationTest {
         examen1 = new Examen();
         examen1.setTitulo("Examen 1");
         examen1.setDescripcion("Descripcion 1");
-        examen1.setPuntosMaximos("100");
-        examen1.setNumeroDePreguntas("10");
+        examen1.setPuntosMaximos(100);
+        examen1.setNumeroDePreguntas(10);
         examen1.setActivo(true);
         examen1.setCategoria(categoria1);
         examen1 = examenRepository.save(examen1);
@@ -66,8 +68,8 @@ public class ExamenControllerIntegrationTest {
         examen2 = new Examen();
         examen2.setTitulo("Examen 2");
         examen2.setDescripcion("Descripcion 2");
-        examen2.setPuntosMaximos("120");
-        examen2.setNumeroDePreguntas("12");
+        examen2.setPuntosMaximos(120);
+        examen2.setNumeroDePreguntas(12);
         examen2.setActivo(false);
         examen2.setCategoria(categoria1);
         examen2 = examenRepository.save(examen2);
@@ -98,8 +100,8 @@ public class ExamenControllerIntegrationTest {
         Examen nuevoExamen = new Examen();
         nuevoExamen.setTitulo("Examen Nuevo");
         nuevoExamen.setDescripcion("Descripcion Nueva");
-        nuevoExamen.setPuntosMaximos("150");
-        nuevoExamen.setNumeroDePreguntas("15");
+        nuevoExamen.setPuntosMaximos(150);
+        nuevoExamen.setNumeroDePreguntas(15);
         nuevoExamen.setActivo(true);
         nuevoExamen.setCategoria(categoria1); // Asignar la categoría creada
 
@@ -111,8 +113,8 @@ public class ExamenControllerIntegrationTest {
                 .andExpect(jsonPath("$.examenId").isNotEmpty())
                 .andExpect(jsonPath("$.titulo").value("Examen Nuevo"))
                 .andExpect(jsonPath("$.descripcion").value("Descripcion Nueva"))
-                .andExpect(jsonPath("$.puntosMaximos").value("150"))
-                .andExpect(jsonPath("$.numeroDePreguntas").value("15"))
+                .andExpect(jsonPath("$.puntosMaximos").value(150))
+                .andExpect(jsonPath("$.numeroDePreguntas").value(15))
                 .andExpect(jsonPath("$.activo").value(true))
                 .andExpect(jsonPath("$.categoria.categoriaId").value(categoria1.getCategoriaId())) // Verificar el categoriaId
                 .andReturn().getResponse().getContentAsString();
@@ -125,8 +127,8 @@ public class ExamenControllerIntegrationTest {
         assertThat(examenGuardado).isPresent();
         assertThat(examenGuardado.get().getTitulo()).isEqualTo("Examen Nuevo");
         assertThat(examenGuardado.get().getDescripcion()).isEqualTo("Descripcion Nueva");
-        assertThat(examenGuardado.get().getPuntosMaximos()).isEqualTo("150");
-        assertThat(examenGuardado.get().getNumeroDePreguntas()).isEqualTo("15");
+        assertThat(examenGuardado.get().getPuntosMaximos()).isEqualTo(150);
+        assertThat(examenGuardado.get().getNumeroDePreguntas()).isEqualTo(15);
         assertThat(examenGuardado.get().isActivo()).isEqualTo(true);
         assertThat(examenGuardado.get().getCategoria().getCategoriaId()).isEqualTo(categoria1.getCategoriaId()); // Verificar el categoriaId
     }
@@ -137,8 +139,8 @@ public class ExamenControllerIntegrationTest {
         examenActualizado.setExamenId(examen1.getExamenId());
         examenActualizado.setTitulo("Examen 1 Actualizado");
         examenActualizado.setDescripcion("Descripcion 1 Actualizada");
-        examenActualizado.setPuntosMaximos("200");
-        examenActualizado.setNumeroDePreguntas("20");
+        examenActualizado.setPuntosMaximos(200);
+        examenActualizado.setNumeroDePreguntas(20);
         examenActualizado.setActivo(false);
         examenActualizado.setCategoria(categoria1);
 
@@ -150,8 +152,8 @@ public class ExamenControllerIntegrationTest {
                 .andExpect(jsonPath("$.examenId").value(examen1.getExamenId()))
                 .andExpect(jsonPath("$.titulo").value("Examen 1 Actualizado"))
                 .andExpect(jsonPath("$.descripcion").value("Descripcion 1 Actualizada"))
-                .andExpect(jsonPath("$.puntosMaximos").value("200"))
-                .andExpect(jsonPath("$.numeroDePreguntas").value("20"))
+                .andExpect(jsonPath("$.puntosMaximos").value(200))
+                .andExpect(jsonPath("$.numeroDePreguntas").value(20))
                 .andExpect(jsonPath("$.activo").value(false))
                 .andExpect(jsonPath("$.categoria.categoriaId").value(categoria1.getCategoriaId()));
 
@@ -159,8 +161,8 @@ public class ExamenControllerIntegrationTest {
         assertThat(examenGuardado).isPresent();
         assertThat(examenGuardado.get().getTitulo()).isEqualTo("Examen 1 Actualizado");
         assertThat(examenGuardado.get().getDescripcion()).isEqualTo("Descripcion 1 Actualizada");
-        assertThat(examenGuardado.get().getPuntosMaximos()).isEqualTo("200");
-        assertThat(examenGuardado.get().getNumeroDePreguntas()).isEqualTo("20");
+        assertThat(examenGuardado.get().getPuntosMaximos()).isEqualTo(200);
+        assertThat(examenGuardado.get().getNumeroDePreguntas()).isEqualTo(20);
         assertThat(examenGuardado.get().isActivo()).isEqualTo(false);
         assertThat(examenGuardado.get().getCategoria().getCategoriaId()).isEqualTo(categoria1.getCategoriaId());
     }
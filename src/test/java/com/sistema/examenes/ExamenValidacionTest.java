@@ -0,0 +1,38 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Examen;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExamenValidacionTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void testAceptaValoresEnviadosComoTexto() throws Exception {
+        Examen examen = new ObjectMapper().readValue("{\"titulo\":\"Java\",\"puntosMaximos\":\"100\",\"numeroDePreguntas\":\"10\"}", Examen.class);
+
+        assertThat(examen.getPuntosMaximos()).isEqualTo(100);
+        assertThat(examen.getNumeroDePreguntas()).isEqualTo(10);
+        assertThat(validator.validate(examen)).isEmpty();
+    }
+
+    @Test
+    void testRechazaValoresFueraDeRango() {
+        Examen examen = new Examen();
+        examen.setPuntosMaximos(-5);
+        examen.setNumeroDePreguntas(0);
+
+        Set<ConstraintViolation<Examen>> violaciones = validator.validate(examen);
+
+        assertThat(violaciones).extracting(v -> v.getPropertyPath().toString())
+                .containsExactlyInAnyOrder("puntosMaximos", "numeroDePreguntas");
+    }
+}
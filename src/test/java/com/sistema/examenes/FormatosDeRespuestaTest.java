@@ -0,0 +1,157 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sistema.examenes.configuraciones.FormatosDeRespuestaConfig;
+import com.sistema.examenes.controladores.PreguntaController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las preguntas para rendir y la calificacion se negocian en JSON, CBOR o Smile con los
+ * mismos datos en cualquiera de los tres.
+ */
+@SpringJUnitConfig(FormatosDeRespuestaTest.Configuracion.class)
+public class FormatosDeRespuestaTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType(FormatosDeRespuestaConfig.APPLICATION_SMILE_VALUE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PreguntaController preguntaController;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("delete from preguntas");
+        jdbcTemplate.update("delete from examenes");
+        jdbcTemplate.update("delete from categorias");
+        jdbcTemplate.update("insert into categorias (categoria_id, titulo) values (1, 'Java')");
+        jdbcTemplate.update("insert into examenes (examen_id, titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values (1, 'Examen', true, 90, 3, 1)");
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("insert into preguntas (pregunta_id, contenido, opcion1, opcion2, respuesta, examen_examen_id) values (?, ?, 'A', 'B', 'A', 1)",
+                    10 + i, String.join("", Collections.nCopies(200, "enunciado ")));
+        }
+        mockMvc = MockMvcBuilders.standaloneSetup(preguntaController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(), cborHttpMessageConverter, smileHttpMessageConverter)
+                .build();
+    }
+
+    private List<Map<String, Object>> preguntas(MediaType formato, ObjectMapper lector) throws Exception {
+        byte[] cuerpo = mockMvc.perform(get("/pregunta/examen/1").accept(formato))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(formato))
+                .andReturn().getResponse().getContentAsByteArray();
+        return lector.readValue(cuerpo, new TypeReference<List<Map<String, Object>>>() {});
+    }
+
+    @Test
+    void testLasPreguntasSeNegocianEnLosTresFormatos() throws Exception {
+        List<Map<String, Object>> enJson = preguntas(MediaType.APPLICATION_JSON, json);
+        List<Map<String, Object>> enCbor = preguntas(MediaType.APPLICATION_CBOR, cbor);
+        List<Map<String, Object>> enSmile = preguntas(SMILE, smile);
+
+        assertThat(enJson).hasSize(3);
+        assertThat(enCbor).extracting(pregunta -> pregunta.get("contenido")).containsOnly(enJson.get(0).get("contenido"));
+        assertThat(enSmile).extracting(pregunta -> pregunta.get("contenido")).containsOnly(enJson.get(0).get("contenido"));
+    }
+
+    @Test
+    void testLaEntregaEnSmileSeCalificaIgualQueEnJson() throws Exception {
+        Map<String, Object> examen = new HashMap<>();
+        examen.put("examenId", 1);
+        // el examen guardado vale 90: los puntos que manda el cliente no cuentan
+        examen.put("puntosMaximos", 9000);
+        List<Map<String, Object>> entrega = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> pregunta = new HashMap<>();
+            pregunta.put("preguntaId", 10 + i);
+            pregunta.put("respuestaDada", i == 2 ? "B" : "A");
+            pregunta.put("examen", examen);
+            entrega.add(pregunta);
+        }
+
+        byte[] cuerpo = mockMvc.perform(post("/pregunta/evaluar-examen")
+                        .contentType(SMILE).accept(SMILE).content(smile.writeValueAsBytes(entrega)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        Map<String, Object> enSmile = smile.readValue(cuerpo, new TypeReference<Map<String, Object>>() {});
+
+        String enJson = mockMvc.perform(post("/pregunta/evaluar-examen")
+                        .contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                        .content(json.writeValueAsBytes(entrega)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(enSmile.get("respuestasCorrectas")).isEqualTo(2);
+        assertThat(enSmile.get("puntosMaximos")).isEqualTo(60.0);
+        assertThat(json.readValue(enJson, new TypeReference<Map<String, Object>>() {})).isEqualTo(enSmile);
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, PreguntaController.class, FormatosDeRespuestaConfig.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("formatos");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        // como en Spring Boot: cada convertidor recibe su propio builder
+        @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+        public Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder() {
+            return new Jackson2ObjectMapperBuilder();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.GrabacionContinua;
+import com.sistema.examenes.eventos.EventoCalificacion;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GrabacionContinuaTest {
+
+    private GrabacionContinua grabacionContinua;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        grabacionContinua = new GrabacionContinua();
+        ReflectionTestUtils.setField(grabacionContinua, "habilitada", true);
+        ReflectionTestUtils.setField(grabacionContinua, "configuracion", "default");
+        ReflectionTestUtils.setField(grabacionContinua, "antiguedadMaximaMin", 5L);
+        ReflectionTestUtils.setField(grabacionContinua, "tamanoMaximoMb", 16L);
+        grabacionContinua.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        grabacionContinua.detener();
+    }
+
+    @Test
+    void testVolcarIncluyeEventosDelDominio() throws Exception {
+        EventoCalificacion evento = new EventoCalificacion();
+        evento.begin();
+        evento.examenId = 42;
+        evento.preguntas = 10;
+        evento.respuestasCorrectas = 7;
+        evento.commit();
+
+        Path archivo = grabacionContinua.volcar();
+        try {
+            List<RecordedEvent> calificaciones = RecordingFile.readAllEvents(archivo).stream()
+                    .filter(e -> e.getEventType().getName().equals("com.sistema.examenes.Calificacion"))
+                    .collect(Collectors.toList());
+
+            assertThat(calificaciones).hasSize(1);
+            assertThat(calificaciones.get(0).getLong("examenId")).isEqualTo(42);
+            assertThat(calificaciones.get(0).getInt("respuestasCorrectas")).isEqualTo(7);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
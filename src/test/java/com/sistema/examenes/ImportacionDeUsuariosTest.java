@@ -0,0 +1,112 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.ErrorDeImportacion;
+import com.sistema.examenes.modelo.ResultadoImportacion;
+import com.sistema.examenes.servicios.ImportacionService;
+import com.sistema.examenes.servicios.impl.ImportacionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringJUnitConfig(ImportacionDeUsuariosTest.Configuracion.class)
+@TestPropertySource(properties = {"examenes.importacion.lote=2", "examenes.importacion.paralelismo=2"})
+public class ImportacionDeUsuariosTest {
+
+    private static final String CSV = "username,password,nombre,apellido,email,telefono\n" +
+            "ana,clave1,Ana,Lopez,ana@gmail.com,111\n" +
+            "luis,clave2,\"Luis, Jr\",Perez,luis@gmail.com,222\n" +
+            "existente,clave3,Eva,Soto,eva@gmail.com,333\n" +
+            "ana,clave4,Ana,Diaz,ana2@gmail.com,444\n" +
+            "sinclave,,Sara,Vega,sara@gmail.com,555\n" +
+            "\"roto,clave,Raul,Rios,raul@gmail.com,666\n" +
+            "maria,clave5,Maria,Diaz,maria@gmail.com,777\n" +
+            "\n" +
+            "pedro,clave6,Pedro,Ruiz,pedro@gmail.com,888\n";
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
+
+    @BeforeEach
+    void limpiar() {
+        jdbcTemplate.update("delete from usuario_rol");
+        jdbcTemplate.update("delete from usuarios");
+        jdbcTemplate.update("insert into usuarios (username, enabled) values ('existente', true)");
+    }
+
+    @Test
+    void testImportaPorLotesEInformaLosErroresPorFila() throws Exception {
+        List<Integer> avance = new ArrayList<>();
+
+        ResultadoImportacion resultado = importacionService.importarUsuarios(new StringReader(CSV), parcial -> avance.add(parcial.getGuardados()));
+
+        assertThat(resultado.getLeidos()).isEqualTo(8);
+        assertThat(resultado.getGuardados()).isEqualTo(4);
+        assertThat(resultado.getErrores())
+                .extracting(ErrorDeImportacion::getLinea, ErrorDeImportacion::getUsername)
+                .containsExactlyInAnyOrder(tuple(4L, "existente"), tuple(5L, "ana"), tuple(6L, "sinclave"), tuple(7L, null));
+        assertThat(avance).containsExactly(2, 3, 4);
+
+        assertThat(jdbcTemplate.queryForList("select username from usuarios where username <> 'existente' order by username", String.class))
+                .containsExactly("ana", "luis", "maria", "pedro");
+        assertThat(jdbcTemplate.queryForObject("select nombre from usuarios where username = 'luis'", String.class)).isEqualTo("Luis, Jr");
+        String password = jdbcTemplate.queryForObject("select password from usuarios where username = 'luis'", String.class);
+        assertThat(bCryptPasswordEncoder.matches("clave2", password)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from usuario_rol where rol_rol_id = 2", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void testRechazaUnArchivoSinEncabezado() throws Exception {
+        ResultadoImportacion resultado = importacionService.importarUsuarios(new StringReader("ana,clave1,Ana,Lopez,ana@gmail.com,111\n"), parcial -> {});
+
+        assertThat(resultado.getGuardados()).isZero();
+        assertThat(resultado.getErrores()).extracting(ErrorDeImportacion::getLinea).containsExactly(1L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from usuarios", Integer.class)).isEqualTo(1);
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, ImportacionServiceImpl.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("importacion");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public NamedParameterJdbcTemplate namedParameterJdbcTemplate(JdbcTemplate jdbcTemplate) {
+            return new NamedParameterJdbcTemplate(jdbcTemplate);
+        }
+
+        @Bean
+        public BCryptPasswordEncoder bCryptPasswordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sistema.examenes;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aplica las migraciones de H2 y comprueba con EXPLAIN que cada consulta de los repositorios
+ * (en la forma SQL que genera Hibernate) se resuelve con un indice y no con un recorrido de tabla.
+ */
+public class IndicesDeConsultasTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrar() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:indices;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.update("insert into categorias (titulo) values ('Java')");
+        jdbcTemplate.update("insert into examenes (titulo, activo, puntos_maximos, numero_de_preguntas, categoria_categoria_id) values ('Basico', true, 100, 10, 1)");
+        jdbcTemplate.update("insert into preguntas (contenido, examen_examen_id) values ('Pregunta', 1)");
+        jdbcTemplate.update("insert into usuarios (username, enabled) values ('elias', true)");
+    }
+
+    private static String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toUpperCase();
+    }
+
+    /**
+     * H2 anota el acceso a cada tabla con el indice elegido y su condicion. Basta con que ese
+     * indice filtre por la columna: en H2 puede ser el implicito de una clave foranea.
+     */
+    private static void assertUsaIndice(String sql, String columna) {
+        String plan = plan(sql);
+        assertThat(plan).doesNotContain("TABLESCAN");
+        assertThat(plan).containsPattern("/\\* PUBLIC\\.\\w+: [^*]*" + columna.toUpperCase());
+    }
+
+    @Test
+    void testBuscarUsuarioPorUsername() {
+        assertUsaIndice("select * from usuarios where username = 'elias'", "username");
+    }
+
+    @Test
+    void testRolesDelUsuario() {
+        assertUsaIndice("select * from usuario_rol ur left outer join roles r on ur.rol_rol_id = r.rol_id where ur.usuario_id = 1", "usuario_id");
+    }
+
+    @Test
+    void testExamenesPorCategoriaYActivo() {
+        assertUsaIndice("select * from examenes where categoria_categoria_id = 1 and activo = true", "categoria_categoria_id");
+    }
+
+    @Test
+    void testExamenesPorCategoria() {
+        assertUsaIndice("select * from examenes where categoria_categoria_id = 1", "categoria_categoria_id");
+    }
+
+    @Test
+    void testExamenesPorActivo() {
+        assertUsaIndice("select * from examenes where activo = true", "activo");
+    }
+
+    @Test
+    void testPreguntasDelExamen() {
+        assertUsaIndice("select * from preguntas where examen_examen_id = 1", "examen_examen_id");
+    }
+
+    @Test
+    void testRefreshTokenPorHash() {
+        assertUsaIndice("select * from refresh_tokens where token_hash = 'abc'", "token_hash");
+    }
+
+    @Test
+    void testEliminarFamiliaDeRefreshTokens() {
+        assertUsaIndice("delete from refresh_tokens where familia = 'abc'", "familia");
+    }
+
+    @Test
+    void testEliminarRefreshTokensExpirados() {
+        assertUsaIndice("delete from refresh_tokens where expiracion < timestamp '2026-01-01 00:00:00'", "expiracion");
+    }
+}
@@ -0,0 +1,65 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.InterceptorDeRoles;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
+import com.sistema.examenes.servicios.impl.CategoriaServiceImpl;
+import com.sistema.examenes.servicios.impl.ClaveDeRespuestasServiceImpl;
+import com.sistema.examenes.servicios.impl.ExamenServiceImpl;
+import com.sistema.examenes.servicios.impl.PreguntaServiceImpl;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * Contexto JPA minimo sobre H2 con los repositorios y los servicios del catalogo, para probar
+ * transacciones y consultas sin levantar la aplicacion. Cada prueba declara su propio DataSource.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories("com.sistema.examenes.repositorios")
+@Import({PreguntaServiceImpl.class, ExamenServiceImpl.class, CategoriaServiceImpl.class, ClaveDeRespuestasServiceImpl.class, VersionesDeCatalogo.class})
+public class JpaEnMemoria {
+
+    public static DataSource migrar(String nombre) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + nombre + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        return dataSource;
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        propiedades.setProperty("hibernate.hbm2ddl.auto", "validate");
+        propiedades.setProperty("hibernate.generate_statistics", "true");
+        // los mismos nombres de tablas y columnas que usa Spring Boot
+        propiedades.setProperty("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        propiedades.setProperty("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        propiedades.setProperty("hibernate.session_factory.interceptor", InterceptorDeRoles.class.getName());
+
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.sistema.examenes.modelo");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaProperties(propiedades);
+        return entityManagerFactory;
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,118 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.AlmacenDeLlaves;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.modelo.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JwtUtilsTest {
+
+    @TempDir
+    Path directorio;
+
+    private AlmacenDeLlaves almacenDeLlaves;
+    private JwtUtils jwtUtils;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        almacenDeLlaves = new AlmacenDeLlaves();
+        almacenDeLlaves.inicializar();
+        jwtUtils = crearJwtUtils(almacenDeLlaves);
+
+        usuario = new Usuario();
+        usuario.setUsername("elias");
+    }
+
+    private JwtUtils crearJwtUtils(AlmacenDeLlaves almacen) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "almacenDeLlaves", almacen);
+        ReflectionTestUtils.setField(utils, "duracionMs", 60000L);
+        return utils;
+    }
+
+    private String generarArchivoDeLlaves(String kid) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(salida, true, "UTF-8"));
+        try {
+            AlmacenDeLlaves.main(new String[]{kid});
+        } finally {
+            System.setOut(original);
+        }
+        return new String(salida.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testGenerarYValidarToken() {
+        String token = jwtUtils.generateToken(usuario);
+
+        Claims claims = jwtUtils.extractAllClaims(token);
+        assertThat(claims.getSubject()).isEqualTo("elias");
+        assertThat(claims.getId()).isNotEmpty();
+        assertThat(jwtUtils.validateToken(claims, usuario)).isTrue();
+    }
+
+    @Test
+    void testRechazaTokensHmac() {
+        String token = Jwts.builder().setSubject("elias").setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .setHeaderParam("kid", almacenDeLlaves.getKidActivo())
+                .signWith(SignatureAlgorithm.HS256, "examportal").compact();
+
+        assertThatThrownBy(() -> jwtUtils.extractAllClaims(token)).isInstanceOf(io.jsonwebtoken.UnsupportedJwtException.class);
+    }
+
+    @Test
+    void testRotacionDeLlavesDesdeArchivo() throws Exception {
+        Path archivo = directorio.resolve("llaves.properties");
+        String primera = generarArchivoDeLlaves("2026-04");
+        Files.write(archivo, primera.getBytes(StandardCharsets.UTF_8));
+
+        AlmacenDeLlaves firmante = new AlmacenDeLlaves();
+        ReflectionTestUtils.setField(firmante, "archivo", archivo.toString());
+        firmante.inicializar();
+        String tokenAnterior = crearJwtUtils(firmante).generateToken(usuario);
+
+        String segunda = generarArchivoDeLlaves("2026-10");
+        String publicaAnterior = primera.substring(primera.indexOf("2026-04.publica"));
+        Files.write(archivo, (segunda + publicaAnterior).getBytes(StandardCharsets.UTF_8));
+        archivo.toFile().setLastModified(System.currentTimeMillis() + 5000);
+        firmante.recargarSiCambio();
+
+        JwtUtils utils = crearJwtUtils(firmante);
+        assertThat(firmante.getKidActivo()).isEqualTo("2026-10");
+        assertThat(utils.extractAllClaims(tokenAnterior).getSubject()).isEqualTo("elias");
+        assertThat(utils.extractAllClaims(utils.generateToken(usuario)).getSubject()).isEqualTo("elias");
+    }
+
+    @Test
+    void testSinArchivoDeLlavesSoloArrancaConDevOTest() throws Exception {
+        AlmacenDeLlaves enProduccion = new AlmacenDeLlaves();
+        ReflectionTestUtils.setField(enProduccion, "environment", new MockEnvironment());
+        assertThatThrownBy(enProduccion::inicializar).isInstanceOf(IllegalStateException.class);
+
+        MockEnvironment conPerfilTest = new MockEnvironment();
+        conPerfilTest.setActiveProfiles("test");
+        AlmacenDeLlaves enPruebas = new AlmacenDeLlaves();
+        ReflectionTestUtils.setField(enPruebas, "environment", conPerfilTest);
+        enPruebas.inicializar();
+        assertThat(enPruebas.getKidActivo()).startsWith("efimera-");
+    }
+}
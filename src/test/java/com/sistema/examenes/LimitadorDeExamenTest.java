@@ -0,0 +1,109 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.LimitadorDeExamen;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LimitadorDeExamenTest {
+
+    @Test
+    void testAdmiteHastaElLimiteYRechazaConColaLlena() {
+        LimitadorDeExamen limitador = new LimitadorDeExamen(2, 1, 10, 0, 250);
+
+        assertThat(limitador.adquirir(0).isAdmitido()).isTrue();
+        assertThat(limitador.adquirir(0).isAdmitido()).isTrue();
+
+        LimitadorDeExamen.Resultado rechazo = limitador.adquirir(0);
+        assertThat(rechazo.isAdmitido()).isFalse();
+        assertThat(rechazo.getPosicion()).isEqualTo(1);
+        assertThat(rechazo.getEsperaEstimadaMs()).isGreaterThan(0);
+    }
+
+    @Test
+    void testLaEsperaTerminaCuandoSeLiberaUnLugar() throws Exception {
+        LimitadorDeExamen limitador = new LimitadorDeExamen(1, 1, 10, 5, 250);
+        assertThat(limitador.adquirir(0).isAdmitido()).isTrue();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch iniciado = new CountDownLatch(1);
+        Future<LimitadorDeExamen.Resultado> enEspera = executor.submit(() -> {
+            iniciado.countDown();
+            return limitador.adquirir(5000);
+        });
+        iniciado.await();
+        while (limitador.getEnEspera() == 0) {
+            Thread.sleep(5);
+        }
+
+        limitador.liberar(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(enEspera.get(5, TimeUnit.SECONDS).isAdmitido()).isTrue();
+        assertThat(limitador.getEnEspera()).isZero();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testElLimiteSeAdaptaALaLatencia() {
+        LimitadorDeExamen limitador = new LimitadorDeExamen(10, 2, 20, 0, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limitador.adquirir(0);
+        }
+        limitador.liberar(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limitador.getLimite()).isEqualTo(11);
+
+        limitador.liberar(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limitador.getLimite()).isEqualTo(9);
+    }
+
+    @Test
+    void testUnaRafagaLentaReduceUnaSolaVez() throws Exception {
+        LimitadorDeExamen limitador = new LimitadorDeExamen(20, 2, 40, 0, 100);
+        for (int i = 0; i < 20; i++) {
+            limitador.adquirir(0);
+        }
+
+        // todas empezaron antes de la primera reduccion: es la misma senal de congestion
+        for (int i = 0; i < 10; i++) {
+            limitador.liberar(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+        assertThat(limitador.getLimite()).isEqualTo(18);
+
+        // una respuesta lenta que empezo despues de la reduccion vuelve a reducir
+        Thread.sleep(150);
+        limitador.liberar(TimeUnit.MILLISECONDS.toNanos(101));
+        assertThat(limitador.getLimite()).isEqualTo(16);
+    }
+
+    @Test
+    void testLosExamenesCompartenElCupoDeHilosEnEspera() throws Exception {
+        Semaphore esperasDisponibles = new Semaphore(1);
+        LimitadorDeExamen primero = new LimitadorDeExamen(1, 1, 10, 5, 250, esperasDisponibles);
+        LimitadorDeExamen segundo = new LimitadorDeExamen(1, 1, 10, 5, 250, esperasDisponibles);
+        assertThat(primero.adquirir(0).isAdmitido()).isTrue();
+        assertThat(segundo.adquirir(0).isAdmitido()).isTrue();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<LimitadorDeExamen.Resultado> enEspera = executor.submit(() -> primero.adquirir(5000));
+        while (primero.getEnEspera() == 0) {
+            Thread.sleep(5);
+        }
+
+        // el cupo esta tomado: el segundo examen rechaza sin bloquear aunque su cola tenga lugar
+        long inicio = System.nanoTime();
+        assertThat(segundo.adquirir(5000).isAdmitido()).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(1000);
+
+        primero.liberar(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(enEspera.get(5, TimeUnit.SECONDS).isAdmitido()).isTrue();
+        assertThat(esperasDisponibles.availablePermits()).isEqualTo(1);
+        executor.shutdownNow();
+    }
+}
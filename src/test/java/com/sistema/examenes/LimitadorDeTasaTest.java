@@ -0,0 +1,219 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.configuraciones.FiltroLimiteDeTasa;
+import com.sistema.examenes.configuraciones.LimitadorDeTasa;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LimitadorDeTasaTest {
+
+    @Test
+    void testAdmiteUnaRafagaDelTamanoDeLaCapacidad() {
+        LimitadorDeTasa limitador = new LimitadorDeTasa("prueba", 5, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limitador.intentar("127.0.0.1")).isZero();
+        }
+        assertThat(limitador.intentar("127.0.0.1")).isGreaterThan(0);
+        assertThat(limitador.intentar("10.0.0.1")).isZero();
+        assertThat(limitador.getRechazadas()).isEqualTo(1);
+        assertThat(limitador.getAdmitidas()).isEqualTo(6);
+    }
+
+    @Test
+    void testNoAdmiteMasQueLaCapacidadConHilosConcurrentes() throws Exception {
+        LimitadorDeTasa limitador = new LimitadorDeTasa("prueba", 50, 1);
+        AtomicInteger admitidas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (limitador.intentar("admin") == 0) {
+                    admitidas.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(admitidas.get()).isEqualTo(50);
+    }
+
+    @Test
+    void testEliminaLasClavesInactivas() throws Exception {
+        LimitadorDeTasa limitador = new LimitadorDeTasa("prueba", 1, 60000);
+        limitador.intentar("a");
+        limitador.intentar("b");
+        Thread.sleep(20);
+
+        limitador.eliminarInactivas(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limitador.getClavesActivas()).isZero();
+    }
+
+    private static FiltroLimiteDeTasa filtro(int capacidadPorIp) {
+        FiltroLimiteDeTasa filtro = new FiltroLimiteDeTasa();
+        ReflectionTestUtils.setField(filtro, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filtro, "capacidadPorIp", capacidadPorIp);
+        ReflectionTestUtils.setField(filtro, "porMinutoPorIp", 1);
+        ReflectionTestUtils.setField(filtro, "capacidadPorUsername", 10);
+        ReflectionTestUtils.setField(filtro, "porMinutoPorUsername", 1);
+        filtro.inicializar();
+        return filtro;
+    }
+
+    private static MockHttpServletRequest login(byte[] cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/generate-token");
+        request.setContent(cuerpo);
+        return request;
+    }
+
+    // un Tomcat embebido con los server.* de application.properties, como detras del balanceador
+    private static WebServer servidor(FiltroLimiteDeTasa filtro) throws IOException {
+        StandardEnvironment entorno = new StandardEnvironment();
+        for (PropertySource<?> fuente : new PropertiesPropertySourceLoader().load("application", new ClassPathResource("application.properties"))) {
+            entorno.getPropertySources().addLast(fuente);
+        }
+        ServerProperties propiedades = Binder.get(entorno).bind("server", ServerProperties.class).get();
+        TomcatServletWebServerFactory fabrica = new TomcatServletWebServerFactory(0);
+        new TomcatWebServerFactoryCustomizer(entorno, propiedades).customize(fabrica);
+        WebServer servidor = fabrica.getWebServer(contexto -> {
+            contexto.addFilter("limite", filtro).addMappingForUrlPatterns(null, false, "/*");
+            contexto.addServlet("login", new HttpServlet() {
+                @Override
+                protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+                    resp.setStatus(204);
+                }
+            }).addMapping("/*");
+        });
+        servidor.start();
+        return servidor;
+    }
+
+    private static int loginDesde(WebServer servidor, String cliente, String username) throws IOException {
+        HttpURLConnection conexion = (HttpURLConnection) new URL("http://127.0.0.1:" + servidor.getPort() + "/generate-token").openConnection();
+        conexion.setRequestMethod("POST");
+        conexion.setRequestProperty("Content-Type", "application/json");
+        conexion.setRequestProperty("X-Forwarded-For", cliente);
+        conexion.setDoOutput(true);
+        try (OutputStream salida = conexion.getOutputStream()) {
+            salida.write(("{\"username\":\"" + username + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+        int estado = conexion.getResponseCode();
+        conexion.disconnect();
+        return estado;
+    }
+
+    @Test
+    void testDetrasDelBalanceadorCadaClienteTieneSuCupo() throws Exception {
+        WebServer servidor = servidor(filtro(1));
+        try {
+            // todas las conexiones llegan desde 127.0.0.1, un proxy interno
+            assertThat(loginDesde(servidor, "203.0.113.1", "a")).isEqualTo(204);
+            assertThat(loginDesde(servidor, "203.0.113.2", "b")).isEqualTo(204);
+            assertThat(loginDesde(servidor, "203.0.113.1", "c")).isEqualTo(429);
+        } finally {
+            servidor.stop();
+        }
+    }
+
+    @Test
+    void testElRechazoSeEscribeComoJsonSinPasarPorError() throws Exception {
+        FiltroLimiteDeTasa filtro = filtro(1);
+        byte[] cuerpo = "{\"username\":\"admin\"}".getBytes(StandardCharsets.UTF_8);
+        filtro.doFilter(login(cuerpo), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(login(cuerpo), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getErrorMessage()).isNull();
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).contains("\"mensaje\"");
+    }
+
+    @Test
+    void testUnCuerpoDemasiadoGrandeResponde413() throws Exception {
+        FiltroLimiteDeTasa filtro = filtro(20);
+        byte[] cuerpo = new byte[16 * 1024 + 1];
+        Arrays.fill(cuerpo, (byte) ' ');
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(login(cuerpo), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(response.getContentAsString()).contains("\"mensaje\"");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void testElCuerpoEnMemoriaSePuedeLeerConReadListener() throws Exception {
+        FiltroLimiteDeTasa filtro = filtro(20);
+        byte[] cuerpo = "{\"username\":\"admin\",\"password\":\"x\"}".getBytes(StandardCharsets.UTF_8);
+        MockFilterChain chain = new MockFilterChain();
+        filtro.doFilter(login(cuerpo), new MockHttpServletResponse(), chain);
+
+        ServletRequest request = chain.getRequest();
+        ServletInputStream entrada = request.getInputStream();
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        AtomicInteger terminados = new AtomicInteger();
+        entrada.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (entrada.isReady() && !entrada.isFinished()) {
+                    int n = entrada.read(buffer, 0, buffer.length);
+                    if (n > 0) {
+                        leido.write(buffer, 0, n);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                terminados.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+        });
+
+        assertThat(leido.toByteArray()).isEqualTo(cuerpo);
+        assertThat(terminados.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.AlmacenDeLlaves;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.configuraciones.MySecurityConfig;
+import com.sistema.examenes.controladores.PreguntaController;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.repositorios.UsuarioRepository;
+import com.sistema.examenes.servicios.PreguntaService;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los timers de BCrypt, JWT, busqueda de usuarios y entrega de examenes se registran en el
+ * registro global, de donde los toma Actuator, y miden cada llamada.
+ */
+public class MetricasDeTiempoTest {
+
+    private SimpleMeterRegistry registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+        Metrics.addRegistry(registro);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registro);
+    }
+
+    private long llamadas(String nombre) {
+        Timer timer = registro.find(nombre).timer();
+        assertThat(timer).as(nombre).isNotNull();
+        return timer.count();
+    }
+
+    // implementacion que solo responde el metodo que usa la prueba
+    private static <T> T responde(Class<T> tipo, String nombreDelMetodo, Object resultado) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, argumentos) -> {
+            if (metodo.getName().equals(nombreDelMetodo)) {
+                return resultado;
+            }
+            if (metodo.getName().equals("toString")) {
+                return tipo.getSimpleName();
+            }
+            throw new UnsupportedOperationException(metodo.getName());
+        }));
+    }
+
+    @Test
+    void testBCryptMideCodificacionYVerificacion() {
+        BCryptPasswordEncoder passwordEncoder = new MySecurityConfig().passwordEncoder();
+
+        String hash = passwordEncoder.encode("secreto");
+        assertThat(passwordEncoder.matches("secreto", hash)).isTrue();
+        assertThat(passwordEncoder.matches("otro", hash)).isFalse();
+
+        assertThat(llamadas("examenes.bcrypt.codificacion")).isEqualTo(1);
+        assertThat(llamadas("examenes.bcrypt.verificacion")).isEqualTo(2);
+        assertThat(registro.find("examenes.bcrypt.verificacion").timer().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void testJwtYBusquedaDeUsuarioMidenCadaLlamada() throws Exception {
+        AlmacenDeLlaves almacenDeLlaves = new AlmacenDeLlaves();
+        almacenDeLlaves.inicializar();
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "almacenDeLlaves", almacenDeLlaves);
+        ReflectionTestUtils.setField(jwtUtils, "duracionMs", 60000L);
+        Usuario usuario = new Usuario();
+        usuario.setUsername("elias");
+
+        jwtUtils.extractAllClaims(jwtUtils.generateToken(usuario));
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "usuarioRepository", responde(UsuarioRepository.class, "findByUsername", usuario));
+        userDetailsService.loadUserByUsername("elias");
+
+        assertThat(llamadas("examenes.jwt.parseo")).isEqualTo(1);
+        assertThat(llamadas("examenes.usuarios.busqueda")).isEqualTo(1);
+    }
+
+    @Test
+    void testLaEntregaDeExamenSeMide() {
+        PreguntaController preguntaController = new PreguntaController();
+        ReflectionTestUtils.setField(preguntaController, "preguntaService", responde(PreguntaService.class, "obtenerPreguntasParaRendir", Collections.emptyList()));
+
+        preguntaController.listarPreguntasDelExamen(1L);
+
+        assertThat(llamadas("examenes.examen.muestreo")).isEqualTo(1);
+    }
+}
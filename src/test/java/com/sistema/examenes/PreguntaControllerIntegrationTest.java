@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -27,6 +28,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @SpringBootTest
+@ActiveProfiles("test")
 @AutoConfigureMockMvc
 public class PreguntaControllerIntegrationTest {
 
@@ -66,8 +68,8 @@ public class PreguntaControllerIntegrationTest {
         examen = new Examen();
         examen.setTitulo("Examen 1");
         examen.setDescripcion("Descripcion 1");
-        examen.setPuntosMaximos("100");
-        examen.setNumeroDePreguntas("10");
+        examen.setPuntosMaximos(100);
+        examen.setNumeroDePreguntas(10);
         examen.setCategoria(categoria1);
         examen.setActivo(true);
         examen = examenRepository.save(examen);
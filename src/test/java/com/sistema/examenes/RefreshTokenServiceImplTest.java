@@ -0,0 +1,193 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.AlmacenDeLlaves;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.excepciones.RefreshTokenInvalidoException;
+import com.sistema.examenes.modelo.JwtResponse;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.repositorios.UsuarioRepository;
+import com.sistema.examenes.servicios.RefreshTokenService;
+import com.sistema.examenes.servicios.RevocacionTokenService;
+import com.sistema.examenes.servicios.impl.RefreshTokenServiceImpl;
+import com.sistema.examenes.servicios.impl.RevocacionTokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rotacion de refresh tokens: cada token sirve una vez, reutilizarlo cierra toda la familia,
+ * dos renovaciones simultaneas con el mismo token no pueden ganar las dos y revocar todos los
+ * tokens del usuario tambien cierra sus refresh tokens.
+ */
+@SpringJUnitConfig(RefreshTokenServiceImplTest.Configuracion.class)
+@ActiveProfiles("test")
+public class RefreshTokenServiceImplTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevocacionTokenService revocacionTokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("delete from refresh_tokens");
+        jdbcTemplate.update("delete from revocaciones_usuario");
+        jdbcTemplate.update("delete from usuarios");
+        jdbcTemplate.update("insert into usuarios (id, username, enabled) values (1, 'elias', true)");
+        usuario = usuarioRepository.findById(1L).get();
+    }
+
+    private int tokensDeLaFamilia() {
+        return jdbcTemplate.queryForObject("select count(*) from refresh_tokens", Integer.class);
+    }
+
+    @Test
+    void testRotarEntregaUnTokenNuevoYConsumeElAnterior() throws Exception {
+        String inicial = refreshTokenService.crearRefreshToken(usuario);
+
+        JwtResponse respuesta = refreshTokenService.rotarRefreshToken(inicial);
+
+        assertThat(jwtUtils.extractUsername(respuesta.getToken())).isEqualTo("elias");
+        assertThat(respuesta.getRefreshToken()).isNotEqualTo(inicial);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from refresh_tokens where usado = true", Integer.class)).isEqualTo(1);
+        assertThat(refreshTokenService.rotarRefreshToken(respuesta.getRefreshToken()).getRefreshToken()).isNotNull();
+    }
+
+    @Test
+    void testReutilizarUnTokenEliminaTodaLaFamilia() throws Exception {
+        String robado = refreshTokenService.crearRefreshToken(usuario);
+        String legitimo = refreshTokenService.rotarRefreshToken(robado).getRefreshToken();
+        String deOtraSesion = refreshTokenService.crearRefreshToken(usuario);
+
+        assertThatThrownBy(() -> refreshTokenService.rotarRefreshToken(robado)).isInstanceOf(RefreshTokenInvalidoException.class);
+
+        assertThatThrownBy(() -> refreshTokenService.rotarRefreshToken(legitimo)).isInstanceOf(RefreshTokenInvalidoException.class);
+        assertThat(tokensDeLaFamilia()).isEqualTo(1);
+        assertThat(refreshTokenService.rotarRefreshToken(deOtraSesion)).isNotNull();
+    }
+
+    @Test
+    void testUnTokenExpiradoNoSeRota() {
+        String expirado = refreshTokenService.crearRefreshToken(usuario);
+        jdbcTemplate.update("update refresh_tokens set expiracion = ?", new java.sql.Timestamp(System.currentTimeMillis() - 1000));
+
+        assertThatThrownBy(() -> refreshTokenService.rotarRefreshToken(expirado)).isInstanceOf(RefreshTokenInvalidoException.class);
+        // no se consume ni se emite otro: queda sin usar hasta que la limpieza lo borre
+        assertThat(jdbcTemplate.queryForObject("select count(*) from refresh_tokens where usado = false", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testRevocarEliminaLaFamilia() throws Exception {
+        String inicial = refreshTokenService.crearRefreshToken(usuario);
+        String rotado = refreshTokenService.rotarRefreshToken(inicial).getRefreshToken();
+
+        refreshTokenService.revocarRefreshToken(inicial);
+
+        assertThat(tokensDeLaFamilia()).isZero();
+        assertThatThrownBy(() -> refreshTokenService.rotarRefreshToken(rotado)).isInstanceOf(RefreshTokenInvalidoException.class);
+    }
+
+    @Test
+    void testRevocarLosTokensDelUsuarioImpideRenovar() throws Exception {
+        String rotado = refreshTokenService.rotarRefreshToken(refreshTokenService.crearRefreshToken(usuario)).getRefreshToken();
+
+        revocacionTokenService.revocarTokensDelUsuario("elias");
+
+        assertThat(tokensDeLaFamilia()).isZero();
+        assertThatThrownBy(() -> refreshTokenService.rotarRefreshToken(rotado)).isInstanceOf(RefreshTokenInvalidoException.class);
+    }
+
+    @Test
+    void testUnaFamiliaAnteriorAlCorteNoSeRota() throws Exception {
+        // por ejemplo, un token emitido por una rotacion que confirmo despues de la revocacion
+        String anterior = refreshTokenService.crearRefreshToken(usuario);
+        jdbcTemplate.update("insert into revocaciones_usuario (username, corte_segundos) values ('elias', ?)",
+                TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+
+        assertThatThrownBy(() -> refreshTokenService.rotarRefreshToken(anterior)).isInstanceOf(RefreshTokenInvalidoException.class);
+        assertThat(tokensDeLaFamilia()).isZero();
+    }
+
+    @Test
+    void testDosRotacionesSimultaneasNoGananLasDos() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int intento = 0; intento < 20; intento++) {
+                jdbcTemplate.update("delete from refresh_tokens");
+                String token = refreshTokenService.crearRefreshToken(usuario);
+                CountDownLatch largada = new CountDownLatch(1);
+                Callable<String> rotar = () -> {
+                    largada.await();
+                    try {
+                        return refreshTokenService.rotarRefreshToken(token).getRefreshToken();
+                    } catch (RefreshTokenInvalidoException exception) {
+                        return null;
+                    }
+                };
+                List<Future<String>> resultados = new ArrayList<>();
+                resultados.add(executor.submit(rotar));
+                resultados.add(executor.submit(rotar));
+                largada.countDown();
+
+                List<String> ganadores = new ArrayList<>();
+                for (Future<String> resultado : resultados) {
+                    String nuevo = resultado.get(10, TimeUnit.SECONDS);
+                    if (nuevo != null) {
+                        ganadores.add(nuevo);
+                    }
+                }
+                // el perdedor trata la carrera como reutilizacion y cierra la familia del ganador
+                assertThat(ganadores).hasSize(1);
+                assertThat(tokensDeLaFamilia()).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, RefreshTokenServiceImpl.class, RevocacionTokenServiceImpl.class, JwtUtils.class, AlmacenDeLlaves.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("refresh-tokens");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.RegistroDeRoles;
+import com.sistema.examenes.modelo.Authority;
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.servicios.UsuarioService;
+import com.sistema.examenes.servicios.impl.UsuarioServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * El alta de un usuario referencia el rol del catalogo cargado al arrancar y no consulta
+ * ni escribe la tabla roles.
+ */
+@SpringJUnitConfig(RegistroDeRolesTest.Configuracion.class)
+public class RegistroDeRolesTest {
+
+    @Autowired
+    private RegistroDeRoles registroDeRoles;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics estadisticas;
+
+    @Autowired
+    void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void limpiar() {
+        jdbcTemplate.update("delete from usuario_rol");
+        jdbcTemplate.update("delete from usuarios");
+        estadisticas.clear();
+    }
+
+    private Usuario nuevoUsuario(String username, long rolId) {
+        return nuevoUsuario(username, registroDeRoles.rol(rolId));
+    }
+
+    private Usuario nuevoUsuario(String username, Rol rol) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setPassword("clave");
+        UsuarioRol usuarioRol = new UsuarioRol();
+        usuarioRol.setUsuario(usuario);
+        usuarioRol.setRol(rol);
+        usuario.getUsuarioRoles().add(usuarioRol);
+        return usuario;
+    }
+
+    @Test
+    void testLaMigracionSiembraElCatalogo() {
+        assertThat(registroDeRoles.rol(RegistroDeRoles.ADMIN).getRolNombre()).isEqualTo("ADMIN");
+        assertThat(registroDeRoles.rol(RegistroDeRoles.NORMAL).getRolNombre()).isEqualTo("NORMAL");
+        assertThatThrownBy(() -> registroDeRoles.rol(99L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testElAltaNoTocaLaTablaDeRoles() throws Exception {
+        Usuario usuario = nuevoUsuario("ana", RegistroDeRoles.NORMAL);
+
+        usuarioService.guardarUsuario(usuario, Collections.emptySet());
+
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+        assertThat(estadisticas.getEntityUpdateCount()).isZero();
+        // busqueda por username, usuario y usuario_rol
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select rol_rol_id from usuario_rol", Long.class)).isEqualTo(RegistroDeRoles.NORMAL);
+    }
+
+    @Test
+    void testUnRolFueraDelCatalogoSeVerificaComoSiempre() throws Exception {
+        usuarioService.guardarUsuario(nuevoUsuario("eva", new Rol(RegistroDeRoles.NORMAL, "NORMAL")), Collections.emptySet());
+
+        // la consulta extra es la que hace Hibernate para saber si el rol ya existe
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("select rol_rol_id from usuario_rol", Long.class)).isEqualTo(RegistroDeRoles.NORMAL);
+    }
+
+    @Test
+    void testLasAutoridadesSeReutilizan() throws Exception {
+        usuarioService.guardarUsuario(nuevoUsuario("luis", RegistroDeRoles.ADMIN), Collections.emptySet());
+
+        Usuario usuario = usuarioService.obtenerUsuario("luis");
+
+        assertThat(usuario.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ADMIN");
+        assertThat(usuario.getAuthorities().iterator().next()).isSameAs(Authority.de("ADMIN"));
+        assertThat(usuario.getAuthorities()).isSameAs(usuario.getAuthorities());
+    }
+
+    @Test
+    void testCambiarUnRolPorOtroRecalculaLasAutoridades() throws Exception {
+        usuarioService.guardarUsuario(nuevoUsuario("marta", RegistroDeRoles.NORMAL), Collections.emptySet());
+        Usuario usuario = usuarioService.obtenerUsuario("marta");
+        assertThat(usuario.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("NORMAL");
+
+        // la misma cantidad de roles, pero otro rol
+        UsuarioRol usuarioRol = usuario.getUsuarioRoles().iterator().next();
+        usuario.getUsuarioRoles().remove(usuarioRol);
+        UsuarioRol administrador = new UsuarioRol();
+        administrador.setUsuario(usuario);
+        administrador.setRol(registroDeRoles.rol(RegistroDeRoles.ADMIN));
+        usuario.getUsuarioRoles().add(administrador);
+
+        assertThat(usuario.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ADMIN");
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, UsuarioServiceImpl.class, RegistroDeRoles.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("roles");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+}
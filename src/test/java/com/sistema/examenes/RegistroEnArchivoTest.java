@@ -0,0 +1,83 @@
+package com.sistema.examenes;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogFile;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.logging.LoggingSystemProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * logback-spring.xml escribe un archivo solo con logging.file.name o logging.file.path; sin
+ * ninguno de los dos la salida es solo la consola, como sin configuracion propia.
+ */
+public class RegistroEnArchivoTest {
+
+    private final LoggingSystem sistema = LoggingSystem.get(getClass().getClassLoader());
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void tearDown() {
+        // Spring Boot deja LOG_FILE y LOG_PATH como propiedades del sistema
+        System.clearProperty(LoggingSystemProperties.LOG_FILE);
+        System.clearProperty(LoggingSystemProperties.LOG_PATH);
+        inicializar(new MockEnvironment());
+    }
+
+    // cleanUp quita la marca con la que Spring Boot evita configurar dos veces el mismo contexto
+    private LoggerContext inicializar(MockEnvironment entorno) {
+        sistema.cleanUp();
+        sistema.beforeInitialize();
+        sistema.initialize(new LoggingInitializationContext(entorno), "classpath:logback-spring.xml", LogFile.get(entorno));
+        return (LoggerContext) LoggerFactory.getILoggerFactory();
+    }
+
+    private static Logger raiz(LoggerContext contexto) {
+        return contexto.getLogger(Logger.ROOT_LOGGER_NAME);
+    }
+
+    // detener el contexto vacia las colas de los appenders asincronos
+    private static String escribirYLeer(LoggerContext contexto, Path archivo) throws Exception {
+        contexto.getLogger(RegistroEnArchivoTest.class).info("linea de prueba");
+        contexto.stop();
+        return new String(Files.readAllBytes(archivo), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testSinArchivoConfiguradoSoloEscribeEnConsola() {
+        LoggerContext contexto = inicializar(new MockEnvironment());
+
+        assertThat(raiz(contexto).getAppender("ASYNC_CONSOLE")).isNotNull();
+        assertThat(raiz(contexto).getAppender("ASYNC_FILE")).isNull();
+        assertThat(contexto.getCopyOfPropertyMap()).doesNotContainKey(LoggingSystemProperties.LOG_FILE);
+    }
+
+    @Test
+    void testConLoggingFileNameEscribeEseArchivo() throws Exception {
+        Path archivo = directorio.resolve("examenes.log");
+        LoggerContext contexto = inicializar(new MockEnvironment().withProperty("logging.file.name", archivo.toString()));
+
+        assertThat(raiz(contexto).getAppender("ASYNC_FILE")).isNotNull();
+        assertThat(escribirYLeer(contexto, archivo)).contains("linea de prueba");
+    }
+
+    @Test
+    void testConLoggingFilePathEscribeSpringLogEnEseDirectorio() throws Exception {
+        LoggerContext contexto = inicializar(new MockEnvironment().withProperty("logging.file.path", directorio.toString()));
+
+        assertThat(escribirYLeer(contexto, directorio.resolve("spring.log"))).contains("linea de prueba");
+    }
+}
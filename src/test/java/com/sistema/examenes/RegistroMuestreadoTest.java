@@ -0,0 +1,75 @@
+package com.sistema.examenes;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.sistema.examenes.configuraciones.RegistroMuestreado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RegistroMuestreadoTest {
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> eventos;
+
+    @BeforeEach
+    void setUp() {
+        logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(RegistroMuestreadoTest.class);
+        logger.setLevel(Level.WARN);
+        eventos = new ListAppender<>();
+        eventos.start();
+        logger.addAppender(eventos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(eventos);
+    }
+
+    @Test
+    void testUnWarnPorMotivoCadaDiezSegundos() {
+        RegistroMuestreado registro = new RegistroMuestreado(logger, 10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            registro.advertir("expirado", "Token expirado para {}", "elias");
+            registro.advertir("firma", "Firma invalida desde {}", "10.0.0.1");
+        }
+
+        assertThat(eventos.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Token expirado para elias", "Firma invalida desde 10.0.0.1");
+        assertThat(eventos.list).extracting(ILoggingEvent::getLevel).containsOnly(Level.WARN);
+    }
+
+    @Test
+    void testAlVencerElIntervaloResumeLosOmitidos() throws Exception {
+        RegistroMuestreado registro = new RegistroMuestreado(logger, 100, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 5; i++) {
+            registro.advertir("expirado", "Token expirado para {}", "elias");
+        }
+        Thread.sleep(150);
+        registro.advertir("expirado", "Token expirado para {}", "admin");
+
+        assertThat(eventos.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "Token expirado para elias",
+                "Token expirado para admin (omitidos 4 mensajes iguales desde el ultimo registro)");
+    }
+
+    @Test
+    void testNoHaceNadaSiWarnEstaDesactivado() {
+        logger.setLevel(Level.ERROR);
+        RegistroMuestreado registro = new RegistroMuestreado(logger, 10, TimeUnit.SECONDS);
+
+        registro.advertir("expirado", "Token expirado para {}", "elias");
+
+        assertThat(eventos.list).isEmpty();
+    }
+}
@@ -0,0 +1,204 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.FiltroBloom;
+import com.sistema.examenes.servicios.impl.RevocacionTokenServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las revocaciones se guardan en la base: un nodo nuevo las carga al arrancar y los demas
+ * las toman en el refresco.
+ */
+@SpringJUnitConfig(RevocacionTokenServiceImplTest.Configuracion.class)
+@TestPropertySource(properties = {
+        "examenes.revocacion.capacidad=10000",
+        "examenes.revocacion.falsos-positivos=0.01",
+        "examenes.jwt.duracion-ms=60000",
+        "examenes.revocacion.margen-ms=60000"
+})
+public class RevocacionTokenServiceImplTest {
+
+    private RevocacionTokenServiceImpl revocacionTokenService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from tokens_revocados");
+        jdbcTemplate.update("delete from revocaciones_usuario");
+        revocacionTokenService = otroNodo();
+    }
+
+    // otro nodo: mismo esquema, memoria vacia
+    private RevocacionTokenServiceImpl otroNodo() {
+        return (RevocacionTokenServiceImpl) applicationContext.getAutowireCapableBeanFactory()
+                .createBean(RevocacionTokenServiceImpl.class, AutowireCapableBeanFactory.AUTOWIRE_NO, false);
+    }
+
+    private Claims crearClaims(String username, long expiracion) {
+        return crearClaims(username, expiracion, new Date(System.currentTimeMillis() - 1000));
+    }
+
+    private Claims crearClaims(String username, long expiracion, Date emision) {
+        Claims claims = new DefaultClaims();
+        claims.setId(UUID.randomUUID().toString());
+        claims.setSubject(username);
+        claims.setIssuedAt(emision);
+        claims.setExpiration(new Date(expiracion));
+        return claims;
+    }
+
+    @Test
+    void testRevocarToken() {
+        Claims revocado = crearClaims("elias", System.currentTimeMillis() + 60000);
+        Claims vigente = crearClaims("elias", System.currentTimeMillis() + 60000);
+
+        revocacionTokenService.revocarToken(revocado);
+
+        assertThat(revocacionTokenService.estaRevocado(revocado)).isTrue();
+        assertThat(revocacionTokenService.estaRevocado(vigente)).isFalse();
+    }
+
+    @Test
+    void testLaRevocacionSobreviveUnaRotacionYSeEliminaAlExpirar() {
+        Claims revocado = crearClaims("elias", System.currentTimeMillis() - 1);
+        revocacionTokenService.revocarToken(revocado);
+
+        revocacionTokenService.rotarFiltros();
+        assertThat(revocacionTokenService.estaRevocado(revocado)).isTrue();
+
+        revocacionTokenService.eliminarRevocacionesExpiradas();
+        assertThat(revocacionTokenService.estaRevocado(revocado)).isFalse();
+    }
+
+    @Test
+    void testRevocarTokensDelUsuario() {
+        Claims anterior = crearClaims("elias", System.currentTimeMillis() + 60000);
+        Claims deOtroUsuario = crearClaims("admin", System.currentTimeMillis() + 60000);
+
+        revocacionTokenService.revocarTokensDelUsuario("elias");
+
+        assertThat(revocacionTokenService.estaRevocado(anterior)).isTrue();
+        assertThat(revocacionTokenService.estaRevocado(deOtroUsuario)).isFalse();
+    }
+
+    @Test
+    void testLasRevocacionesSobrevivenUnReinicioYLleganAOtrosNodos() {
+        Claims revocado = crearClaims("elias", System.currentTimeMillis() + 60000);
+        Claims deUsuarioRevocado = crearClaims("admin", System.currentTimeMillis() + 60000);
+        RevocacionTokenServiceImpl yaArrancado = otroNodo();
+
+        revocacionTokenService.revocarToken(revocado);
+        revocacionTokenService.revocarTokensDelUsuario("admin");
+
+        RevocacionTokenServiceImpl reiniciado = otroNodo();
+        assertThat(reiniciado.estaRevocado(revocado)).isTrue();
+        assertThat(reiniciado.estaRevocado(deUsuarioRevocado)).isTrue();
+
+        assertThat(yaArrancado.estaRevocado(revocado)).isFalse();
+        yaArrancado.refrescar();
+        assertThat(yaArrancado.estaRevocado(revocado)).isTrue();
+        assertThat(yaArrancado.estaRevocado(deUsuarioRevocado)).isTrue();
+    }
+
+    @Test
+    void testElRefrescoSoloLeeLasRevocacionesNuevas() {
+        RevocacionTokenServiceImpl nodo = otroNodo();
+        revocacionTokenService.revocarToken(crearClaims("elias", System.currentTimeMillis() + 60000));
+        nodo.refrescar();
+        Claims anterior = crearClaims("elias", System.currentTimeMillis() + 60000);
+        Claims nuevo = crearClaims("elias", System.currentTimeMillis() + 60000);
+        // una fila creada mucho antes que la ultima vista, fuera del margen, ya no se vuelve a leer
+        jdbcTemplate.update("insert into tokens_revocados (jti, expiracion, creado) values (?, ?, ?)",
+                anterior.getId(), anterior.getExpiration(), new Date(System.currentTimeMillis() - 3600000));
+        revocacionTokenService.revocarToken(nuevo);
+
+        nodo.refrescar();
+
+        assertThat(nodo.estaRevocado(nuevo)).isTrue();
+        assertThat(nodo.estaRevocado(anterior)).isFalse();
+        // al arrancar se cargan todas las vigentes
+        assertThat(otroNodo().estaRevocado(anterior)).isTrue();
+    }
+
+    @Test
+    void testElCorteDelUsuarioSeComparaEnSegundos() {
+        revocacionTokenService.revocarTokensDelUsuario("elias");
+        long corte = jdbcTemplate.queryForObject("select corte_segundos from revocaciones_usuario where username = 'elias'", Long.class);
+        long expiracion = System.currentTimeMillis() + 60000;
+
+        // el iat viene truncado al segundo: en el mismo segundo del corte no se sabe si fue antes, se revoca
+        assertThat(revocacionTokenService.estaRevocado(crearClaims("elias", expiracion, new Date(corte * 1000 - 1)))).isTrue();
+        assertThat(revocacionTokenService.estaRevocado(crearClaims("elias", expiracion, new Date(corte * 1000)))).isTrue();
+        assertThat(revocacionTokenService.estaRevocado(crearClaims("elias", expiracion, new Date(corte * 1000 + 999)))).isTrue();
+        assertThat(revocacionTokenService.estaRevocado(crearClaims("elias", expiracion, new Date(corte * 1000 + 1000)))).isFalse();
+    }
+
+    @Test
+    void testLaLimpiezaBorraLasFilasExpiradas() {
+        revocacionTokenService.revocarToken(crearClaims("elias", System.currentTimeMillis() - 1));
+        revocacionTokenService.revocarToken(crearClaims("elias", System.currentTimeMillis() + 60000));
+        jdbcTemplate.update("insert into revocaciones_usuario (username, corte_segundos) values ('viejo', 1)");
+
+        revocacionTokenService.eliminarRevocacionesExpiradas();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tokens_revocados", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from revocaciones_usuario", Integer.class)).isZero();
+    }
+
+    @Test
+    void testFiltroBloomRespetaLaTasaDeFalsosPositivos() {
+        FiltroBloom filtro = new FiltroBloom(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            UUID uuid = UUID.randomUUID();
+            filtro.agregar(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100000; i++) {
+            UUID uuid = UUID.randomUUID();
+            if (filtro.puedeContener(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())) {
+                falsosPositivos++;
+            }
+        }
+        assertThat(falsosPositivos).isLessThan(2000);
+    }
+
+    @Configuration
+    @EnableTransactionManagement(proxyTargetClass = true)
+    @Import(JpaEnMemoria.class)
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("revocaciones");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+}
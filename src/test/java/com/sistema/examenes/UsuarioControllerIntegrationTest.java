@@ -1,10 +1,9 @@
 package com.sistema.examenes;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.configuraciones.RegistroDeRoles;
 import com.sistema.examenes.modelo.Usuario;
 import com.sistema.examenes.modelo.UsuarioRol;
-import com.sistema.examenes.repositorios.RolRepository;
 import com.sistema.examenes.repositorios.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
@@ -27,6 +27,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
+@ActiveProfiles("test")
 @AutoConfigureMockMvc
 public class UsuarioControllerIntegrationTest {
 
@@ -37,7 +38,7 @@ public class UsuarioControllerIntegrationTest {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private RolRepository rolRepository;
+    private RegistroDeRoles registroDeRoles;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -52,13 +53,6 @@ public class UsuarioControllerIntegrationTest {
     @BeforeEach
     void setUp() throws Exception {
         usuarioRepository.deleteAll();
-        rolRepository.deleteAll();
-
-        // Crear un rol
-        Rol rol = new Rol();
-        rol.setRolId(1L);
-        rol.setRolNombre("ADMIN");
-        rolRepository.save(rol);
 
         // Crear un usuario
         usuario = new Usuario();
@@ -72,7 +66,7 @@ public class UsuarioControllerIntegrationTest {
 
         UsuarioRol usuarioRol = new UsuarioRol();
         usuarioRol.setUsuario(usuario);
-        usuarioRol.setRol(rol);
+        usuarioRol.setRol(registroDeRoles.rol(RegistroDeRoles.ADMIN));
 
         Set<UsuarioRol> usuarioRoles = new HashSet<>();
         usuarioRoles.add(usuarioRol);
@@ -0,0 +1,283 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.CacheConfig;
+import com.sistema.examenes.configuraciones.VersionesDeCatalogo;
+import com.sistema.examenes.controladores.CategoriaController;
+import com.sistema.examenes.controladores.ExamenController;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.servicios.CategoriaService;
+import com.sistema.examenes.servicios.ExamenService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las escrituras confirmadas cambian el ETag de su agregado y un If-None-Match vigente se
+ * responde con 304 sin ejecutar sentencias.
+ */
+@SpringJUnitConfig(VersionesDeCatalogoTest.Configuracion.class)
+@TestPropertySource(properties = "examenes.http.cache.categorias-max-age=300")
+public class VersionesDeCatalogoTest {
+
+    @Autowired
+    private VersionesDeCatalogo versionesDeCatalogo;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ExamenService examenService;
+
+    @Autowired
+    private CategoriaController categoriaController;
+
+    @Autowired
+    private ExamenController examenController;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics estadisticas;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void preparar() {
+        mockMvc = MockMvcBuilders.standaloneSetup(categoriaController, examenController).build();
+        estadisticas.clear();
+    }
+
+    private Categoria nuevaCategoria(String titulo) {
+        Categoria categoria = new Categoria();
+        categoria.setTitulo(titulo);
+        categoria.setDescripcion("Descripcion");
+        return categoria;
+    }
+
+    private Examen nuevoExamen(Categoria categoria, String titulo) {
+        Examen examen = new Examen();
+        examen.setTitulo(titulo);
+        examen.setDescripcion("Descripcion");
+        examen.setPuntosMaximos(10);
+        examen.setNumeroDePreguntas(1);
+        examen.setActivo(true);
+        examen.setCategoria(categoria);
+        return examenService.agregarExamen(examen);
+    }
+
+    private String etagDe(String url) throws Exception {
+        return mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private long versionEnLaBase(String agregado) {
+        return jdbcTemplate.queryForObject("select version from versiones_catalogo where agregado = ?", Long.class, agregado);
+    }
+
+    private void avanzarEnOtroNodo(String agregado) {
+        jdbcTemplate.update("update versiones_catalogo set version = version + 1 where agregado = ?", agregado);
+    }
+
+    @Test
+    void testLaEscrituraConfirmadaAvanzaLaVersion() {
+        long antes = versionesDeCatalogo.version(VersionesDeCatalogo.CATEGORIAS);
+        long examenes = versionesDeCatalogo.version(VersionesDeCatalogo.EXAMENES);
+
+        categoriaService.agregarCategoria(nuevaCategoria("Java"));
+
+        assertThat(versionesDeCatalogo.version(VersionesDeCatalogo.CATEGORIAS)).isEqualTo(antes + 1);
+        assertThat(versionEnLaBase(VersionesDeCatalogo.CATEGORIAS)).isEqualTo(antes + 1);
+        assertThat(versionesDeCatalogo.version(VersionesDeCatalogo.EXAMENES)).isEqualTo(examenes);
+    }
+
+    @Test
+    void testLaEscrituraRevertidaConservaLaVersion() {
+        long antes = versionesDeCatalogo.version(VersionesDeCatalogo.CATEGORIAS);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            categoriaService.agregarCategoria(nuevaCategoria("Python"));
+            estado.setRollbackOnly();
+        });
+
+        assertThat(versionesDeCatalogo.version(VersionesDeCatalogo.CATEGORIAS)).isEqualTo(antes);
+        assertThat(versionEnLaBase(VersionesDeCatalogo.CATEGORIAS)).isEqualTo(antes);
+    }
+
+    @Test
+    void testLaVersionDeOtroNodoSeTomaAlRefrescar() {
+        long antes = versionesDeCatalogo.version(VersionesDeCatalogo.PREGUNTAS);
+        avanzarEnOtroNodo(VersionesDeCatalogo.PREGUNTAS);
+
+        versionesDeCatalogo.refrescar();
+
+        assertThat(versionesDeCatalogo.version(VersionesDeCatalogo.PREGUNTAS)).isEqualTo(antes + 1);
+    }
+
+    @Test
+    void testOtroNodoEditaExamenesYSeVacianLasCaches() {
+        // toma lo que hayan escrito las otras pruebas antes de llenar las caches
+        versionesDeCatalogo.refrescar();
+        Cache respuestasCorrectas = cacheManager.getCache(CacheConfig.RESPUESTAS_CORRECTAS);
+        Cache examenes = cacheManager.getCache(CacheConfig.EXAMENES);
+        respuestasCorrectas.put(1L, "clave vieja");
+        examenes.put(1L, "examen viejo");
+
+        // sin cambios, o con cambios que no afectan a los examenes, las caches siguen
+        versionesDeCatalogo.refrescar();
+        avanzarEnOtroNodo(VersionesDeCatalogo.CATEGORIAS);
+        versionesDeCatalogo.refrescar();
+        assertThat(respuestasCorrectas.get(1L)).isNotNull();
+
+        avanzarEnOtroNodo(VersionesDeCatalogo.PREGUNTAS);
+        versionesDeCatalogo.refrescar();
+
+        assertThat(respuestasCorrectas.get(1L)).isNull();
+        assertThat(examenes.get(1L)).isNull();
+    }
+
+    @Test
+    void testElNodoQueEscribeVaciaOtraVezCuandoElRefrescoVeSuVersion() {
+        versionesDeCatalogo.refrescar();
+        Cache preguntasDelExamen = cacheManager.getCache(CacheConfig.PREGUNTAS_DEL_EXAMEN);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                versionesDeCatalogo.incrementar(VersionesDeCatalogo.EXAMENES));
+        // llenada desde una replica que todavia no tenia la escritura
+        preguntasDelExamen.put(1L, "preguntas viejas");
+
+        versionesDeCatalogo.refrescar();
+
+        assertThat(preguntasDelExamen.get(1L)).isNull();
+    }
+
+    @Test
+    void testElIfNoneMatchVigenteNoConsultaLaBase() throws Exception {
+        MvcResult primera = mockMvc.perform(get("/categoria/"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, private"))
+                .andReturn();
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo(versionesDeCatalogo.etag(VersionesDeCatalogo.CATEGORIAS));
+        estadisticas.clear();
+
+        mockMvc.perform(get("/categoria/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+
+        categoriaService.agregarCategoria(nuevaCategoria("Go"));
+
+        mockMvc.perform(get("/categoria/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, versionesDeCatalogo.etag(VersionesDeCatalogo.CATEGORIAS)));
+    }
+
+    @Test
+    void testElEtagSaleDeLaVersionLeidaConElCuerpo() throws Exception {
+        categoriaService.agregarCategoria(nuevaCategoria("Rust"));
+        // este nodo ya vio la escritura, pero la base que sirve el cuerpo todavia no
+        jdbcTemplate.update("update versiones_catalogo set version = version - 1 where agregado = ?", VersionesDeCatalogo.CATEGORIAS);
+        try {
+            long enLaBase = versionEnLaBase(VersionesDeCatalogo.CATEGORIAS);
+
+            String etag = etagDe("/categoria/");
+
+            assertThat(etag).isEqualTo("W/\"" + VersionesDeCatalogo.CATEGORIAS + "-" + enLaBase + "\"")
+                    .isNotEqualTo(versionesDeCatalogo.etag(VersionesDeCatalogo.CATEGORIAS));
+        } finally {
+            avanzarEnOtroNodo(VersionesDeCatalogo.CATEGORIAS);
+        }
+    }
+
+    @Test
+    void testEditarUnExamenNoInvalidaElEtagDeOtro() throws Exception {
+        Categoria categoria = categoriaService.agregarCategoria(nuevaCategoria("Examenes"));
+        Examen editado = nuevoExamen(categoria, "Editado");
+        Examen intacto = nuevoExamen(categoria, "Intacto");
+        String etagEditado = etagDe("/examen/" + editado.getExamenId());
+        String etagIntacto = etagDe("/examen/" + intacto.getExamenId());
+        assertThat(etagEditado).isEqualTo("W/\"examen-" + editado.getExamenId() + "-1\"");
+        estadisticas.clear();
+
+        mockMvc.perform(get("/examen/" + intacto.getExamenId()).header(HttpHeaders.IF_NONE_MATCH, etagIntacto))
+                .andExpect(status().isNotModified());
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+
+        editado.setTitulo("Editado otra vez");
+        examenService.actualizarExamen(editado);
+
+        mockMvc.perform(get("/examen/" + editado.getExamenId()).header(HttpHeaders.IF_NONE_MATCH, etagEditado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"examen-" + editado.getExamenId() + "-2\""));
+        mockMvc.perform(get("/examen/" + intacto.getExamenId()).header(HttpHeaders.IF_NONE_MATCH, etagIntacto))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etagIntacto));
+    }
+
+    @Test
+    void testElEtagEsDebilYSeComparaSinElPrefijo() throws Exception {
+        String etag = etagDe("/categoria/");
+        assertThat(etag).startsWith("W/\"");
+
+        // un intermediario puede devolverlo sin el W/ y sigue siendo la misma version
+        mockMvc.perform(get("/categoria/").header(HttpHeaders.IF_NONE_MATCH, "\"otro\", " + etag.substring(2)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Configuration
+    @Import({JpaEnMemoria.class, CategoriaController.class, ExamenController.class})
+    static class Configuracion {
+
+        @Bean
+        public DataSource dataSource() {
+            return JpaEnMemoria.migrar("versiones");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.EXAMENES, CacheConfig.PREGUNTAS_DEL_EXAMEN, CacheConfig.RESPUESTAS_CORRECTAS);
+        }
+    }
+}